@@ -0,0 +1,77 @@
+package puzzle;
+
+import java.util.Random;
+
+/**
+ * Boards shuffled from the goal by random moves of the empty square. The
+ * seed is fixed so every run of a benchmark sees the same boards.
+ *
+ * @author joshua
+ *
+ */
+public class Boards
+{
+	public static final long SEED = 20240229L;
+
+	/**
+	 * Returns the goal of an n by n board with the empty square in the bottom
+	 * right corner, as the game uses.
+	 *
+	 * @param n - the number of rows and columns.
+	 * @return PState goal
+	 */
+	public static PState goal(int n)
+	{
+		byte grid[] = new byte[n*n];
+		for(int i = 0; i < grid.length; i++)
+			grid[i] = (byte)i;
+		grid[grid.length - 1] = PState.EMPTY;
+		return new PState(grid, (byte)(grid.length - 1));
+	}
+
+	/**
+	 * Plays random moves from the goal without undoing the last move.
+	 *
+	 * @param n - the number of rows and columns.
+	 * @param steps - the number of moves.
+	 * @param random
+	 * @return PState the board reached with the moves as its path.
+	 */
+	public static PState walk(int n, int steps, Random random)
+	{
+		PState state = goal(n);
+		BoardGeometry geometry = state.getGeometry();
+		byte last = Constants.NONE;
+		for(int i = 0; i < steps;)
+		{
+			byte direction = (byte)random.nextInt(4);
+			if(geometry.moveTo(state.getEmpty(), direction) < 0 || (last != Constants.NONE && direction == (last ^ 1)))
+				continue;
+
+			state = state.slide(direction);
+			last = direction;
+			i++;
+		}
+		return state;
+	}
+
+	/**
+	 * Returns count boards shuffled by steps moves each, as roots without a path.
+	 *
+	 * @param n - the number of rows and columns.
+	 * @param count - the number of boards.
+	 * @param steps - the number of moves.
+	 * @return PState[] boards
+	 */
+	public static PState[] shuffled(int n, int count, int steps)
+	{
+		Random random = new Random(SEED + n);
+		PState boards[] = new PState[count];
+		for(int i = 0; i < count; i++)
+		{
+			PState state = walk(n, steps, random);
+			boards[i] = new PState(state.toGrid(), (byte)state.getEmpty());
+		}
+		return boards;
+	}
+}
\ No newline at end of file
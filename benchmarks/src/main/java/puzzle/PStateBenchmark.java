@@ -0,0 +1,86 @@
+package puzzle;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Operations on a single PState the searches run at every node. Boards of
+ * 3x3 and 4x4 are packed in a long, 5x5 boards keep a Zobrist key.
+ *
+ * @author joshua
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PStateBenchmark
+{
+	private static final int PATH_LENGTH = 200; // Moves behind the state constructPath() walks.
+
+	@Param({"3", "4", "5"})
+	public int n;
+
+	private PState state; // A shuffled board reached by PATH_LENGTH moves.
+	private PState same; // Another state with the same board as state.
+	private PState goal;
+
+	@Setup
+	public void setUp()
+	{
+		state = Boards.walk(n, PATH_LENGTH, new Random(Boards.SEED + n));
+		same = new PState(state.toGrid(), (byte)state.getEmpty());
+		goal = Boards.goal(n);
+	}
+
+	@Benchmark
+	public ArrayList<PState> genSuccessors()
+	{
+		return state.genSuccessors();
+	}
+
+	@Benchmark
+	public short computeHeuristic()
+	{
+		return state.computeHeuristic();
+	}
+
+	@Benchmark
+	public int hashCode()
+	{
+		return state.hashCode();
+	}
+
+	@Benchmark
+	public boolean equals()
+	{
+		return state.equals(same);
+	}
+
+	@Benchmark
+	public boolean isGoal()
+	{
+		return state.isGoal(goal, false);
+	}
+
+	@Benchmark
+	public MoveSequence constructPath()
+	{
+		return state.constructPath();
+	}
+}
\ No newline at end of file
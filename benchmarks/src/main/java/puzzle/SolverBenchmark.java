@@ -0,0 +1,67 @@
+package puzzle;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Full solves of a fixed set of boards. Every call solves the next board
+ * of the set so the time is the mean over the set. 4x4 boards get fewer
+ * moves because they are solved optimally. The subgoals are searched with
+ * IDA* or Fringe search as picked by engine.
+ *
+ * @author joshua
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SolverBenchmark
+{
+	private static final int BOARDS = 16;
+
+	@Param({"3", "4", "5"})
+	public int n;
+
+	@Param({"idastar", "fringe"})
+	public String engine;
+
+	private SolverOptions options;
+	private PState boards[];
+	private int goalEmpty;
+	private int next;
+
+	@Setup
+	public void setUp()
+	{
+		boards = Boards.shuffled(n, BOARDS, (n == 4) ? 60 : 1000);
+		goalEmpty = n*n - 1;
+		next = 0;
+		options = new SolverOptions();
+		options.setFringeSearch(engine.equals("fringe"));
+
+		// Builds the tables the solver loads on first use so they are not timed.
+		new Solver(options).solve(boards[0], goalEmpty);
+	}
+
+	@Benchmark
+	public PState solve()
+	{
+		PState root = boards[next];
+		next = (next + 1) % BOARDS;
+		return new Solver(options).solve(root, goalEmpty);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,159 @@
+/**
+ * A* search over a NodeArena. States are int indices into the arena, so the
+ * explored tree is a few large primitive arrays instead of a PState per node
+ * and the open list only holds ints. The PState path is only built once the
+ * goal is found.
+ *
+ * Nodes are expanded in the same order as an OpenList of PStates: lowest
+ * f(n) = g(n) + weight*h(n) first, then highest g and then the last node
+ * added (see BucketQueue). A node reached again with a lower g is given the
+ * new path and pushed again, the old entry is skipped when it comes up.
+ *
+ * @author joshua
+ *
+ */
+public class AStarSearch
+{
+	private PState root;
+	private PState goal;
+	private boolean multi;
+	private int weight; // Weight given to h(n).
+	private SolveStatistics statistics; // Where the counts go or null.
+
+	/**
+	 * Constructs the search from root to goal.
+	 *
+	 * @param root - the starting state.
+	 * @param goal - the goal state. May contain FREE tiles if multi is set.
+	 * @param multi - set this to true if there are free tiles in the goal state.
+	 * @param weight - weight of h(n) in f(n). Use 1 for an optimal search.
+	 */
+	public AStarSearch(PState root, PState goal, boolean multi, int weight)
+	{
+		this.root = root;
+		this.goal = goal;
+		this.multi = multi;
+		this.weight = weight;
+	}
+
+	/**
+	 * Runs the search.
+	 *
+	 * @return PState the goal state with path from root inside it or null if there is none.
+	 */
+	public PState search()
+	{
+		BoardGeometry geometry = root.getGeometry();
+		NodeArena arena = new NodeArena(geometry.getCells());
+		BucketQueue open = new BucketQueue();
+
+		long expanded = 0, generated = 0, duplicates = 0;
+		int peakOpen = 0;
+		long goalKey[] = multi ? null : arena.encode(goal);
+		long key[] = arena.encode(root);
+		int node = arena.add(~arena.find(key), key, root.getEmpty(), 0, root.getH(), -1, Constants.NONE);
+
+		while(node >= 0 && !isGoal(arena, node, goalKey))
+		{
+			int empty = arena.getEmpty(node);
+			int g = arena.getG(node) + 1;
+			int next[] = geometry.neighbors(empty);
+			byte directions[] = geometry.directions(empty);
+			for(int i = 0; i < next.length; i++)
+			{
+				arena.slide(node, next[i], key);
+				generated++;
+				int child = arena.find(key);
+				if(child >= 0)
+				{
+					// Closed nodes are never opened again.
+					if(arena.isClosed(child) || arena.getG(child) <= g)
+					{
+						duplicates++;
+						continue;
+					}
+					arena.relink(child, g, node, directions[i]);
+				}
+				else
+				{
+					// The tile at next[i] slides into the empty square.
+					int tile = arena.tileAt(node, next[i]);
+					int h = arena.getH(node) + geometry.delta(tile, next[i], empty);
+					child = arena.add(~child, key, next[i], g, h, node, directions[i]);
+				}
+
+				open.add(child, g, g + weight*arena.getH(child));
+			}
+
+			arena.close(node);
+			expanded++;
+			peakOpen = Math.max(peakOpen, open.size());
+			node = next(arena, open);
+		}
+
+		// Every node expanded stays closed.
+		if(statistics != null)
+			statistics.addSearch(generated, expanded, duplicates, peakOpen, expanded);
+
+		if(node < 0)
+			return null;
+
+		PState state = root;
+		for(byte move: arena.constructPath(node))
+			state = state.slide(move);
+		return state;
+	}
+
+	/**
+	 * Makes search() add its counts to statistics.
+	 *
+	 * @param statistics - the statistics of the solve or null.
+	 */
+	public void setStatistics(SolveStatistics statistics)
+	{
+		this.statistics = statistics;
+	}
+
+	/**
+	 * Removes the next node from open, skipping entries that were replaced
+	 * by a cheaper path.
+	 *
+	 * @param arena
+	 * @param open
+	 * @return the next node or -1 if there is none.
+	 */
+	private static int next(NodeArena arena, BucketQueue open)
+	{
+		int node;
+		while((node = open.poll()) >= 0)
+		{
+			if(arena.getG(node) == open.getPolledG())
+				return node;
+		}
+		return -1;
+	}
+
+	/**
+	 * Checks whether node is a goal. Compares the packed boards if there is
+	 * only one goal state otherwise it checks for FREE tiles.
+	 *
+	 * @param arena
+	 * @param node
+	 * @param goalKey - the packed goal or null if multi is set.
+	 * @return true if node is a goal.
+	 */
+	private boolean isGoal(NodeArena arena, int node, long goalKey[])
+	{
+		if(!multi)
+			return arena.matches(node, goalKey);
+
+		int cells = root.getGeometry().getCells();
+		for(int i = 0; i < cells; i++)
+		{
+			int want = goal.tileAt(i);
+			if(want != PState.FREE && arena.tileAt(node, i) != want)
+				return false;
+		}
+		return true;
+	}
+}
\ No newline at end of file
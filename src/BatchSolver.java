@@ -0,0 +1,407 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Solves a stream of boards without the user interface. Every board is
+ * given by the goal cell of the piece on each cell in row order, and the
+ * piece whose goal cell is goalEmpty is the empty square. In text every
+ * line holds one board with its numbers separated by spaces, so the Korf
+ * instances read as they are with the default goalEmpty of 0. In binary
+ * every board is a byte holding n followed by n*n bytes.
+ *
+ * One line is written for every board in the order they were read: the
+ * board's number counting from 0, the number of moves and the moves as
+ * letters (see MoveSequence.toString()), or the number and "unsolvable",
+ * "invalid" or "failed".
+ * Boards are solved by a fixed pool of workers. Every worker keeps its own
+ * Solver whose searches run on one thread, so other solvers in the same
+ * JVM keep their settings.
+ * At most WINDOW_PER_WORKER boards per worker are read ahead of the next
+ * line to be written, so the results waiting for an earlier board fit in a
+ * ring and neither the input nor the output is held in memory.
+ *
+ * @author joshua
+ *
+ */
+public class BatchSolver
+{
+	private static final int WINDOW_PER_WORKER = 4; // Boards read ahead of the output per worker.
+
+	private int goalEmpty;
+	private boolean binary;
+	private int workers;
+	private SolverOptions options; // Settings of every worker's Solver.
+	private ThreadLocal<Solver> solvers; // The Solver of each worker.
+
+	private Writer out;
+	private String results[]; // results[number % window] is the line of a board solved before the boards ahead of it.
+	private long written; // Number of lines written.
+	private Semaphore window; // A permit for every board that may be read ahead of the output.
+	private IOException failure; // First error writing the output.
+
+	/**
+	 * Constructs the solver.
+	 *
+	 * @param goalEmpty - the goal cell of the empty square.
+	 * @param binary - true if the boards are in binary.
+	 * @param workers - the number of boards solved at the same time.
+	 */
+	public BatchSolver(int goalEmpty, boolean binary, int workers)
+	{
+		this.goalEmpty = goalEmpty;
+		this.binary = binary;
+		this.workers = workers;
+
+		// Each worker solves one board at a time on its own thread.
+		options = new SolverOptions();
+		options.setThreads(1);
+	}
+
+	/**
+	 * Solves every board read from in and writes the results to out in the
+	 * same order.
+	 *
+	 * @param in - the boards.
+	 * @param output - where the results go.
+	 * @return long the number of boards read.
+	 * @throws IOException if reading or writing fails.
+	 */
+	public long run(InputStream in, OutputStream output) throws IOException
+	{
+		int size = workers*WINDOW_PER_WORKER;
+		out = new BufferedWriter(new OutputStreamWriter(output, "US-ASCII"));
+		results = new String[size];
+		written = 0;
+		window = new Semaphore(size);
+		failure = null;
+		solvers = new ThreadLocal<Solver>()
+		{
+			@Override
+			protected Solver initialValue()
+			{
+				return new Solver(options);
+			}
+		};
+
+		ExecutorService pool = Executors.newFixedThreadPool(workers);
+		long number = 0;
+		try
+		{
+			BufferedReader text = binary ? null : new BufferedReader(new InputStreamReader(in, "US-ASCII"));
+			DataInputStream data = binary ? new DataInputStream(new BufferedInputStream(in)) : null;
+			while(true)
+			{
+				final byte board[] = binary ? readBinary(data) : readText(text);
+				if(board == null)
+					break;
+
+				window.acquireUninterruptibly();
+				synchronized(this)
+				{
+					if(failure != null)
+						throw failure;
+				}
+
+				final long n = number++;
+				pool.execute(new Runnable()
+				{
+					public void run()
+					{
+						String line = n + " failed";
+						try
+						{
+							line = solve(n, board);
+						} catch(RuntimeException e)
+						{
+							// Written as failed.
+						} finally
+						{
+							// Even after an Error such as OutOfMemoryError the board's slot must be
+							// filled, or every later line waits for it forever.
+							done(n, line);
+						}
+					}
+				});
+			}
+
+			// Wait for the last boards to be written.
+			window.acquireUninterruptibly(size);
+			synchronized(this)
+			{
+				if(failure != null)
+					throw failure;
+			}
+			out.flush();
+		} finally
+		{
+			pool.shutdownNow();
+			try
+			{
+				pool.awaitTermination(1, TimeUnit.MINUTES);
+			} catch(InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		return number;
+	}
+
+	/**
+	 * Reads the next line holding a board. Blank lines are skipped.
+	 *
+	 * @param in
+	 * @return byte[] the numbers of the board, an empty array if they can not be read, or null at the end.
+	 * @throws IOException
+	 */
+	private static byte[] readText(BufferedReader in) throws IOException
+	{
+		String line;
+		do
+		{
+			line = in.readLine();
+			if(line == null)
+				return null;
+			line = line.trim();
+		} while(line.isEmpty());
+
+		String numbers[] = line.split("\\s+");
+		byte board[] = new byte[numbers.length];
+		try
+		{
+			for(int i = 0; i < numbers.length; i++)
+			{
+				int value = Integer.parseInt(numbers[i]);
+				if(value < 0 || value > Byte.MAX_VALUE)
+					return new byte[0];
+				board[i] = (byte)value;
+			}
+		} catch(NumberFormatException e)
+		{
+			return new byte[0];
+		}
+		return board;
+	}
+
+	/**
+	 * Reads the next board in binary.
+	 *
+	 * @param in
+	 * @return byte[] the numbers of the board or null at the end.
+	 * @throws IOException if the input ends inside a board.
+	 */
+	private static byte[] readBinary(DataInputStream in) throws IOException
+	{
+		int n;
+		try
+		{
+			n = in.readUnsignedByte();
+		} catch(EOFException e)
+		{
+			return null;
+		}
+
+		byte board[] = new byte[n*n];
+		in.readFully(board);
+		return board;
+	}
+
+	/**
+	 * Solves a board.
+	 *
+	 * @param number - the number of the board in the input.
+	 * @param numbers - the goal cell of the piece on each cell.
+	 * @return String the line written for the board.
+	 */
+	private String solve(long number, byte numbers[])
+	{
+		PState root = toState(numbers, goalEmpty);
+		if(root == null)
+			return number + " invalid";
+		if(!isSolvable(numbers, root.getEmpty(), goalEmpty))
+			return number + " unsolvable";
+
+		PState solution = solvers.get().solve(root, goalEmpty);
+		if(solution == null)
+			return number + " unsolvable";
+
+		MoveSequence path = solution.constructPath();
+		return number + " " + path.size() + " " + path;
+	}
+
+	/**
+	 * Builds the state of a board.
+	 *
+	 * @param numbers - the goal cell of the piece on each cell.
+	 * @param goalEmpty - the goal cell of the empty square.
+	 * @return PState the board or null if numbers is not a square board holding every goal cell once.
+	 */
+	static PState toState(byte numbers[], int goalEmpty)
+	{
+		int cells = numbers.length;
+		int n = (int)Math.round(Math.sqrt(cells));
+		if(n < BoardGeometry.MIN_N || n > BoardGeometry.MAX_N || n*n != cells || goalEmpty >= cells)
+			return null;
+
+		// Every goal cell must appear once.
+		byte grid[] = new byte[cells];
+		boolean seen[] = new boolean[cells];
+		int empty = -1;
+		for(int i = 0; i < cells; i++)
+		{
+			int value = numbers[i];
+			if(value < 0 || value >= cells || seen[value])
+				return null;
+			seen[value] = true;
+
+			grid[i] = (byte)value;
+			if(value == goalEmpty)
+			{
+				grid[i] = PState.EMPTY;
+				empty = i;
+			}
+		}
+
+		return new PState(grid, (byte)empty);
+	}
+
+	/**
+	 * Checks if the goal can be reached. Every move swaps the empty square
+	 * with a tile, so the parity of the permutation taking every piece home
+	 * changes with the parity of the empty square's distance from its goal.
+	 *
+	 * @param numbers - the goal cell of the piece on each cell.
+	 * @param empty - the cell of the empty square.
+	 * @param goalEmpty - the goal cell of the empty square.
+	 * @return true if solvable false otherwise.
+	 */
+	static boolean isSolvable(byte numbers[], int empty, int goalEmpty)
+	{
+		// Count the cycles of the permutation. Its parity is cells minus cycles.
+		boolean visited[] = new boolean[numbers.length];
+		int cycles = 0;
+		for(int i = 0; i < numbers.length; i++)
+		{
+			if(visited[i])
+				continue;
+			cycles++;
+			for(int j = i; !visited[j]; j = numbers[j])
+				visited[j] = true;
+		}
+
+		int distance = BoardGeometry.forCells(numbers.length).distance(empty, goalEmpty);
+		return ((numbers.length - cycles) & 1) == (distance & 1);
+	}
+
+	/**
+	 * Writes the line of board number and every line after it that is ready.
+	 *
+	 * @param number - the number of the board in the input.
+	 * @param line - the line written for the board.
+	 */
+	private synchronized void done(long number, String line)
+	{
+		results[(int)(number % results.length)] = line;
+		while(true)
+		{
+			int slot = (int)(written % results.length);
+			if(results[slot] == null)
+				break;
+
+			try
+			{
+				if(failure == null)
+				{
+					out.write(results[slot]);
+					out.write('\n');
+				}
+			} catch(IOException e)
+			{
+				failure = e;
+			}
+			results[slot] = null;
+			written++;
+			window.release();
+		}
+	}
+
+	/**
+	 * Solves the boards in a file or standard input and reports the throughput
+	 * on standard error.
+	 *
+	 * @param args - options followed by the input and output files.
+	 */
+	public static void main(String[] args)
+	{
+		int goalEmpty = 0;
+		boolean binary = false;
+		int workers = Runtime.getRuntime().availableProcessors();
+		String input = null, output = null;
+
+		try
+		{
+			for(int i = 0; i < args.length; i++)
+			{
+				if(args[i].equals("-binary"))
+					binary = true;
+				else if(args[i].equals("-empty"))
+					goalEmpty = Integer.parseInt(args[++i]);
+				else if(args[i].equals("-workers"))
+					workers = Integer.parseInt(args[++i]);
+				else if(input == null)
+					input = args[i];
+				else if(output == null)
+					output = args[i];
+				else
+					throw new IllegalArgumentException();
+			}
+			if(goalEmpty < 0 || workers < 1)
+				throw new IllegalArgumentException();
+		} catch(RuntimeException e)
+		{
+			System.err.println("Usage: java BatchSolver [-binary] [-empty <goalEmpty>] [-workers <count>] [input [output]]");
+			System.exit(1);
+		}
+
+		BatchSolver solver = new BatchSolver(goalEmpty, binary, workers);
+		long start = System.nanoTime();
+		long count;
+		try
+		{
+			InputStream in = (input == null || input.equals("-")) ? System.in : new FileInputStream(input);
+			OutputStream out = (output == null) ? System.out : new FileOutputStream(output);
+			try
+			{
+				count = solver.run(in, out);
+			} finally
+			{
+				in.close();
+				if(out != System.out)
+					out.close();
+			}
+		} catch(IOException e)
+		{
+			System.err.println("Failed to solve the boards: " + e.getMessage());
+			System.exit(1);
+			return;
+		}
+
+		double seconds = (System.nanoTime() - start)/1e9;
+		System.err.printf("Solved %d puzzles in %.2f s (%.1f puzzles/s)%n", count, seconds, count/seconds);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,300 @@
+import java.util.Random;
+
+/**
+ * Shape of an n by n board. Holds the row and column of every position,
+ * the moves of the empty square from every position and the change in
+ * Manhattan distance of every tile move so searches look them up instead of
+ * dividing by n. A geometry never changes, so one instance for
+ * each n is shared by every state and search.
+ *
+ * @author joshua
+ *
+ */
+public class BoardGeometry
+{
+	public static final int MIN_N = 2, MAX_N = 8;
+
+	private static final BoardGeometry geometries[] = new BoardGeometry[MAX_N + 1];
+	private static final long ZOBRIST_SEED = 0x5EED5EEDL; // Fixed so hashes are the same on every run.
+
+	private final int n;
+	private final int cells;
+	private final byte row[]; // row[pos] is the row of pos.
+	private final byte col[]; // col[pos] is the column of pos.
+	private final int moveTo[][]; // moveTo[pos][direction] is the new empty square or -1.
+	private final int neighbors[][]; // neighbors[pos] are the positions next to pos in the order UP, DOWN, LEFT, RIGHT.
+	private final byte directions[][]; // directions[pos][i] is the move of the empty square from pos to neighbors[pos][i].
+	private final byte moves[]; // moves[pos] has bit 1 << direction set for every legal direction.
+	private final byte delta[]; // delta[(tile*cells + from)*cells + to] is the change in distance of tile moving from from to to.
+	private final long zobrist[]; // zobrist[(value + 2)*cells + pos] is the random key of value at pos. Values start at FREE = -2.
+
+	/**
+	 * Constructs the geometry of an n by n board.
+	 *
+	 * @param n - the number of rows and columns.
+	 */
+	private BoardGeometry(int n)
+	{
+		this.n = n;
+		cells = n*n;
+		row = new byte[cells];
+		col = new byte[cells];
+		moveTo = new int[cells][4];
+		neighbors = new int[cells][];
+		directions = new byte[cells][];
+		moves = new byte[cells];
+
+		for(int pos = 0; pos < cells; pos++)
+		{
+			row[pos] = (byte)(pos/n);
+			col[pos] = (byte)(pos%n);
+			moveTo[pos][Constants.UP] = (row[pos] - 1 >= 0) ? pos - n : -1;
+			moveTo[pos][Constants.DOWN] = (row[pos] + 1 < n) ? pos + n : -1;
+			moveTo[pos][Constants.LEFT] = (col[pos] - 1 >= 0) ? pos - 1 : -1;
+			moveTo[pos][Constants.RIGHT] = (col[pos] + 1 < n) ? pos + 1 : -1;
+
+			int count = 0;
+			for(byte direction: new byte[]{Constants.UP, Constants.DOWN, Constants.LEFT, Constants.RIGHT})
+			{
+				if(moveTo[pos][direction] >= 0)
+				{
+					moves[pos] |= 1 << direction;
+					count++;
+				}
+			}
+
+			neighbors[pos] = new int[count];
+			directions[pos] = new byte[count];
+			count = 0;
+			for(byte direction: new byte[]{Constants.UP, Constants.DOWN, Constants.LEFT, Constants.RIGHT})
+			{
+				if(moveTo[pos][direction] >= 0)
+				{
+					neighbors[pos][count] = moveTo[pos][direction];
+					directions[pos][count++] = direction;
+				}
+			}
+		}
+
+		delta = new byte[cells*cells*cells];
+		for(int tile = 0; tile < cells; tile++)
+		{
+			for(int from = 0; from < cells; from++)
+			{
+				for(int to = 0; to < cells; to++)
+					delta[(tile*cells + from)*cells + to] = (byte)(distance(to, tile) - distance(from, tile));
+			}
+		}
+
+		Random random = new Random(ZOBRIST_SEED + n);
+		zobrist = new long[(cells + 2)*cells];
+		for(int i = 0; i < zobrist.length; i++)
+			zobrist[i] = random.nextLong();
+	}
+
+	/**
+	 * Returns the geometry of an n by n board.
+	 *
+	 * @param n - the number of rows and columns.
+	 * @return BoardGeometry the shared geometry.
+	 */
+	public static synchronized BoardGeometry get(int n)
+	{
+		if(n < MIN_N || n > MAX_N)
+			throw new IllegalArgumentException("No board with " + n + " rows");
+
+		if(geometries[n] == null)
+			geometries[n] = new BoardGeometry(n);
+		return geometries[n];
+	}
+
+	/**
+	 * Returns the geometry of a board with cells positions.
+	 *
+	 * @param cells - the number of positions on the board.
+	 * @return BoardGeometry the shared geometry.
+	 */
+	public static BoardGeometry forCells(int cells)
+	{
+		int n = (int)Math.round(Math.sqrt(cells));
+		if(n*n != cells)
+			throw new IllegalArgumentException("A board of " + cells + " cells is not square");
+		return get(n);
+	}
+
+	/**
+	 * Returns n.
+	 *
+	 * @return int the number of rows and columns.
+	 */
+	public int getN()
+	{
+		return n;
+	}
+
+	/**
+	 * Returns the number of positions.
+	 *
+	 * @return int n*n
+	 */
+	public int getCells()
+	{
+		return cells;
+	}
+
+	/**
+	 * Returns the row of pos.
+	 *
+	 * @param pos - position on the board.
+	 * @return int row
+	 */
+	public int row(int pos)
+	{
+		return row[pos];
+	}
+
+	/**
+	 * Returns the column of pos.
+	 *
+	 * @param pos - position on the board.
+	 * @return int col
+	 */
+	public int col(int pos)
+	{
+		return col[pos];
+	}
+
+	/**
+	 * Returns the position at row and col.
+	 *
+	 * @param row
+	 * @param col
+	 * @return int pos
+	 */
+	public int pos(int row, int col)
+	{
+		return row*n + col;
+	}
+
+	/**
+	 * Returns the Manhattan distance between two positions.
+	 *
+	 * @param a - position on the board.
+	 * @param b - position on the board.
+	 * @return int distance
+	 */
+	public int distance(int a, int b)
+	{
+		return Math.abs(row[a] - row[b]) + Math.abs(col[a] - col[b]);
+	}
+
+	/**
+	 * Returns the new position of the empty square after it moves from pos.
+	 *
+	 * @param pos - position of the empty square.
+	 * @param direction - the direction from Constants class.
+	 * @return int the new position or -1 if the move leaves the board.
+	 */
+	public int moveTo(int pos, int direction)
+	{
+		return moveTo[pos][direction];
+	}
+
+	/**
+	 * Returns the table of moves. Shared, must not be changed.
+	 *
+	 * @return int[][] moveTo where moveTo[pos][direction] is the new empty square or -1.
+	 */
+	public int[][] getMoveTable()
+	{
+		return moveTo;
+	}
+
+	/**
+	 * Returns the positions next to pos. Shared, must not be changed.
+	 *
+	 * @param pos - position on the board.
+	 * @return int[] neighbors in the order UP, DOWN, LEFT, RIGHT.
+	 */
+	public int[] neighbors(int pos)
+	{
+		return neighbors[pos];
+	}
+
+	/**
+	 * Returns the moves of the empty square to each of neighbors(pos).
+	 * Shared, must not be changed.
+	 *
+	 * @param pos - position of the empty square.
+	 * @return byte[] directions from Constants class.
+	 */
+	public byte[] directions(int pos)
+	{
+		return directions[pos];
+	}
+
+	/**
+	 * Returns the change in Manhattan distance of tile sliding from from to to.
+	 *
+	 * @param tile
+	 * @param from - the old position of tile.
+	 * @param to - the new position of tile.
+	 * @return int the new distance minus the old distance.
+	 */
+	public int delta(int tile, int from, int to)
+	{
+		return delta[(tile*cells + from)*cells + to];
+	}
+
+	/**
+	 * Returns the legal moves of the empty square at pos.
+	 *
+	 * @param pos - position of the empty square.
+	 * @return int mask with bit 1 << direction set for every legal direction.
+	 */
+	public int moves(int pos)
+	{
+		return moves[pos];
+	}
+
+	/**
+	 * Returns the Zobrist key of value at pos. The key of a board is the xor
+	 * of the keys of every cell, so a move changes it with four xors.
+	 *
+	 * @param value - a tile, EMPTY or FREE.
+	 * @param pos - position on the board.
+	 * @return long key
+	 */
+	public long zobrist(int value, int pos)
+	{
+		return zobrist[(value + 2)*cells + pos];
+	}
+
+	/**
+	 * Returns the Zobrist key of grid.
+	 *
+	 * @param grid - array representing the state of the board.
+	 * @return long key
+	 */
+	public long zobrist(byte grid[])
+	{
+		long key = 0;
+		for(int pos = 0; pos < cells; pos++)
+			key ^= zobrist(grid[pos], pos);
+		return key;
+	}
+
+	/**
+	 * Returns the change in Zobrist key when the tile at from slides into the
+	 * empty square at to.
+	 *
+	 * @param tile
+	 * @param from - the old position of tile and the new empty square.
+	 * @param to - the new position of tile and the old empty square.
+	 * @return long the key to xor into the board's key.
+	 */
+	public long zobristMove(int tile, int from, int to)
+	{
+		return zobrist(tile, from) ^ zobrist(tile, to) ^ zobrist(PState.EMPTY, from) ^ zobrist(PState.EMPTY, to);
+	}
+}
\ No newline at end of file
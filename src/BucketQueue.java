@@ -0,0 +1,157 @@
+import java.util.Arrays;
+
+/**
+ * Priority queue of int entries for A* searches. Entries are kept in stacks
+ * indexed by f(n) and inside a bucket by g(n), so add and poll take constant
+ * time instead of the log time of a heap. Ties on f are broken in favour of
+ * the largest g and then the last entry added.
+ *
+ * The queue does not know what an entry stands for. A search that adds an
+ * entry again with a lower g skips the old one when it comes up, comparing
+ * the g it was added with (see getPolledG()) with the best g it knows.
+ *
+ * @author joshua
+ *
+ */
+public class BucketQueue
+{
+	private static final int INITIAL_BUCKETS = 64;
+	private static final int INITIAL_STACK = 4;
+
+	private int stacks[][][]; // stacks[f][g] is a stack of entries.
+	private int sizes[][]; // sizes[f][g] is the number of entries on stacks[f][g].
+	private int tops[]; // tops[f] is the highest g that may hold an entry for f.
+	private int minF; // No bucket below minF holds an entry.
+	private int size; // Number of entries including stale ones.
+	private int polledG; // g of the entry poll() returned last.
+
+	/**
+	 * Constructs an empty BucketQueue.
+	 */
+	public BucketQueue()
+	{
+		stacks = new int[INITIAL_BUCKETS][][];
+		sizes = new int[INITIAL_BUCKETS][];
+		tops = new int[INITIAL_BUCKETS];
+		Arrays.fill(tops, -1);
+		minF = Integer.MAX_VALUE;
+		size = 0;
+		polledG = -1;
+	}
+
+	/**
+	 * Returns true if there are no entries left.
+	 *
+	 * @return boolean isEmpty
+	 */
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	/**
+	 * Returns the number of entries including stale ones.
+	 *
+	 * @return int size
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Adds entry to bucket f and g.
+	 *
+	 * @param entry - a value of at least 0.
+	 * @param g - cost from the root.
+	 * @param f - priority, the lowest comes first.
+	 */
+	public void add(int entry, int g, int f)
+	{
+		if(f >= stacks.length)
+			growBuckets(f);
+
+		if(stacks[f] == null || g >= stacks[f].length)
+		{
+			int length = Math.max(g + 1, f + 1);
+			stacks[f] = (stacks[f] == null) ? new int[length][] : Arrays.copyOf(stacks[f], length);
+			sizes[f] = (sizes[f] == null) ? new int[length] : Arrays.copyOf(sizes[f], length);
+		}
+
+		int stack[] = stacks[f][g];
+		int top = sizes[f][g];
+		if(stack == null)
+		{
+			stack = new int[INITIAL_STACK];
+			stacks[f][g] = stack;
+		}
+		else if(top == stack.length)
+		{
+			stack = Arrays.copyOf(stack, top << 1);
+			stacks[f][g] = stack;
+		}
+
+		stack[top] = entry;
+		sizes[f][g] = top + 1;
+
+		if(g > tops[f])
+			tops[f] = g;
+		if(f < minF)
+			minF = f;
+		size++;
+	}
+
+	/**
+	 * Removes and returns the entry with the lowest f. Ties go to the highest
+	 * g and then to the last entry added. Stale entries are returned too.
+	 *
+	 * @return the next entry or -1 if the queue is empty.
+	 */
+	public int poll()
+	{
+		while(size > 0)
+		{
+			while(stacks[minF] == null || tops[minF] < 0)
+				minF++;
+
+			int f = minF;
+			int g = tops[f];
+			if(sizes[f][g] == 0)
+			{
+				tops[f]--;
+				continue;
+			}
+
+			size--;
+			polledG = g;
+			return stacks[f][g][--sizes[f][g]];
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Returns the g the entry poll() returned last was added with.
+	 *
+	 * @return int g
+	 */
+	public int getPolledG()
+	{
+		return polledG;
+	}
+
+	/**
+	 * Grows the bucket arrays so bucket f exists.
+	 *
+	 * @param f
+	 */
+	private void growBuckets(int f)
+	{
+		int length = Math.max(f + 1, stacks.length << 1);
+		int oldLength = stacks.length;
+		stacks = Arrays.copyOf(stacks, length);
+		sizes = Arrays.copyOf(sizes, length);
+		tops = Arrays.copyOf(tops, length);
+		Arrays.fill(tops, oldLength, length, -1);
+	}
+}
\ No newline at end of file
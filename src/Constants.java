@@ -1,13 +1,13 @@
-/**
- * Holds constants for SliderPuzzle.
- * 
- * @author joshua
- *
- */
-public class Constants
-{
-	public static final byte LEFT = 0, RIGHT = 1, UP = 2, DOWN = 3, NONE = -1;
-	public static final double fracWidth = 3, fracHeight = 1.4;
-	public static final double ANIMATION_BASE = .001;
-	public static final int NUM_PASSES = 4;
+/**
+ * Holds constants for SliderPuzzle.
+ * 
+ * @author joshua
+ *
+ */
+public class Constants
+{
+	public static final byte LEFT = 0, RIGHT = 1, UP = 2, DOWN = 3, NONE = -1;
+	public static final double fracWidth = 3, fracHeight = 1.4;
+	public static final double ANIMATION_BASE = .001;
+	public static final int NUM_PASSES = 4;
 }
\ No newline at end of file
@@ -0,0 +1,223 @@
+import java.util.Arrays;
+
+/**
+ * Distance to goal of every solvable 8-puzzle state. States are ranked
+ * into 0 to 181439 by the position of the empty square followed by the
+ * Lehmer code of the first six tiles. The last two tiles are fixed by the
+ * parity every solvable state with that empty square shares.
+ *
+ * Each table holds the distance mod 16 in 4 bits. Every move changes the
+ * distance by exactly one, so a solution is found by always moving to the
+ * neighbour one closer to the goal without any search.
+ *
+ * @author joshua
+ *
+ */
+public class EightPuzzleTable
+{
+	public static final int SIZE = 181440; // Number of solvable states.
+
+	private static final int CELLS = 9;
+	private static final int PER_EMPTY = SIZE/CELLS; // States for each position of the empty square.
+	private static final int MASK = 0xF;
+
+	// Tables for each position of the empty square in the goal. Built when first used.
+	private static final byte tables[][] = new byte[CELLS][];
+
+	// Moves of the empty square from each position in the order UP, DOWN, LEFT, RIGHT.
+	private static final byte DIRECTIONS[] = {Constants.UP, Constants.DOWN, Constants.LEFT, Constants.RIGHT};
+	private static final int moveTo[][] = new int[CELLS][4];
+
+	static
+	{
+		for(int pos = 0; pos < CELLS; pos++)
+		{
+			int row = pos/3, col = pos%3;
+			moveTo[pos][0] = (row - 1 >= 0) ? pos - 3 : -1;
+			moveTo[pos][1] = (row + 1 < 3) ? pos + 3 : -1;
+			moveTo[pos][2] = (col - 1 >= 0) ? pos - 1 : -1;
+			moveTo[pos][3] = (col + 1 < 3) ? pos + 1 : -1;
+		}
+	}
+
+	private EightPuzzleTable()
+	{
+	}
+
+	/**
+	 * Ranks a packed 3x3 state (see PackedGrid).
+	 *
+	 * @param packed - the packed grid.
+	 * @param empty - position of the empty square.
+	 * @param goalEmpty - position of the empty square in the goal.
+	 * @return int index from 0 to SIZE - 1.
+	 */
+	public static int index(long packed, int empty, int goalEmpty)
+	{
+		int rank = 0, used = 0;
+		for(int cell = 0, count = 0; count < 6; cell++)
+		{
+			if(cell == empty)
+				continue;
+
+			// Number the tiles 0 to 7 without the tile missing at goalEmpty.
+			int tile = PackedGrid.get(packed, cell);
+			if(tile > goalEmpty)
+				tile--;
+
+			rank = rank*(8 - count) + tile - Integer.bitCount(used & ((1 << tile) - 1));
+			used |= 1 << tile;
+			count++;
+		}
+		return empty*PER_EMPTY + rank;
+	}
+
+	/**
+	 * Finds the moves solving a 3x3 board.
+	 *
+	 * @param board - array representing the state of the board.
+	 * @param goalEmpty - position of the empty square in the goal.
+	 * @return moves - the directions of the empty square or null if the board is not solvable.
+	 */
+	public static byte[] solve(byte board[], int goalEmpty)
+	{
+		if(!PackedGrid.canPack(board) || board.length != CELLS || !isSolvable(board))
+			return null;
+
+		byte table[] = table(goalEmpty);
+
+		long packed = PackedGrid.pack(board);
+		long goal = PackedGrid.pack(goalGrid(goalEmpty));
+		int empty = 0;
+		while(board[empty] != PState.EMPTY)
+			empty++;
+
+		int dist = get(table, index(packed, empty, goalEmpty));
+		byte moves[] = new byte[32];
+		int count = 0;
+		while(packed != goal)
+		{
+			int next = -1;
+			for(int d = 0; d < 4 && next < 0; d++)
+			{
+				int to = moveTo[empty][d];
+				if(to < 0)
+					continue;
+
+				long child = PackedGrid.swap(packed, empty, to);
+				if(get(table, index(child, to, goalEmpty)) == ((dist - 1) & MASK))
+				{
+					next = to;
+					packed = child;
+					moves[count++] = DIRECTIONS[d];
+				}
+			}
+
+			if(next < 0 || count == moves.length)
+				return null;
+
+			empty = next;
+			dist = (dist - 1) & MASK;
+		}
+
+		return Arrays.copyOf(moves, count);
+	}
+
+	/**
+	 * Builds the goal grid with every tile in its true location.
+	 *
+	 * @param goalEmpty - position of the empty square in the goal.
+	 * @return byte[] the goal grid.
+	 */
+	private static byte[] goalGrid(int goalEmpty)
+	{
+		byte goal[] = new byte[CELLS];
+		for(byte i = 0; i < CELLS; i++)
+			goal[i] = i;
+		goal[goalEmpty] = PState.EMPTY;
+		return goal;
+	}
+
+	/**
+	 * Checks if a 3x3 board can reach the goal. On a board of odd width
+	 * the number of inversions among the tiles never changes parity.
+	 *
+	 * @param board - array representing the state of the board.
+	 * @return true if solvable false otherwise.
+	 */
+	private static boolean isSolvable(byte board[])
+	{
+		int inversions = 0;
+		for(int i = 0; i < CELLS; i++)
+		{
+			for(int j = i + 1; j < CELLS && board[i] >= 0; j++)
+			{
+				if(board[j] >= 0 && board[j] < board[i])
+					inversions++;
+			}
+		}
+		return (inversions & 1) == 0;
+	}
+
+	/**
+	 * Reads the 4 bit entry at index.
+	 *
+	 * @param table - the table.
+	 * @param index - the state.
+	 * @return int distance mod 16.
+	 */
+	private static int get(byte table[], int index)
+	{
+		return (table[index >> 1] >> ((index & 1) << 2)) & MASK;
+	}
+
+	/**
+	 * Returns the table for goalEmpty. The table is built with a breadth first
+	 * search back from the goal the first time it is needed.
+	 *
+	 * @param goalEmpty - position of the empty square in the goal.
+	 * @return byte[] table
+	 */
+	private static synchronized byte[] table(int goalEmpty)
+	{
+		if(tables[goalEmpty] != null)
+			return tables[goalEmpty];
+
+		boolean seen[] = new boolean[SIZE];
+		byte table[] = new byte[SIZE/2];
+		long queue[] = new long[SIZE];
+		byte empties[] = new byte[SIZE];
+		byte dists[] = new byte[SIZE];
+		int head = 0, tail = 0;
+
+		queue[tail] = PackedGrid.pack(goalGrid(goalEmpty));
+		empties[tail++] = (byte)goalEmpty;
+		seen[index(queue[0], goalEmpty, goalEmpty)] = true;
+		while(head < tail)
+		{
+			long packed = queue[head];
+			int empty = empties[head];
+			int dist = dists[head++];
+			for(int d = 0; d < 4; d++)
+			{
+				int to = moveTo[empty][d];
+				if(to < 0)
+					continue;
+
+				long child = PackedGrid.swap(packed, empty, to);
+				int index = index(child, to, goalEmpty);
+				if(!seen[index])
+				{
+					seen[index] = true;
+					table[index >> 1] |= ((dist + 1) & MASK) << ((index & 1) << 2);
+					queue[tail] = child;
+					empties[tail] = (byte)to;
+					dists[tail++] = (byte)(dist + 1);
+				}
+			}
+		}
+
+		tables[goalEmpty] = table;
+		return table;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,276 @@
+import java.util.Arrays;
+
+/**
+ * Fringe search. Like IDA* it searches with thresholds of increasing f,
+ * but the nodes an iteration cuts off are kept in a list and the next
+ * iteration starts from them instead of from the root, so no node is
+ * expanded twice unless it is reached with a lower g. The g of every node
+ * seen is cached in a NodeArena.
+ *
+ * The fringe is a linked list of nodes. A node within the threshold is
+ * replaced by its children, which go right after it so they are searched
+ * next as in a depth first search. Nodes over the threshold stay for the
+ * next iteration.
+ *
+ * @author joshua
+ *
+ */
+public class FringeSearch
+{
+	private static final int NONE = -1; // End of the fringe.
+
+	private PState root;
+	private boolean multi;
+	private int weight; // Weight given to h(n).
+
+	private byte goalOf[]; // goalOf[pos] is the tile the goal requires at pos or FREE.
+	private Heuristic heuristic;
+	private BoardGeometry geometry;
+
+	private NodeArena arena;
+
+	// Doubly linked fringe indexed by node.
+	private int next[];
+	private int prev[];
+	private boolean inFringe[];
+	private int head;
+
+	// Counts of the search.
+	private long expanded;
+	private long generated;
+	private long duplicates; // Children reached before with an equal or lower g.
+	private int fringeSize;
+	private int peakFringe;
+	private SolveStatistics statistics; // Where the counts go or null.
+
+	/**
+	 * Constructs the search from root to goal using the heuristic chosen in
+	 * options, counting the same tiles as IDAStarSearch.
+	 *
+	 * @param root - the starting state.
+	 * @param goal - the goal state. May contain FREE tiles if multi is set.
+	 * @param multi - set this to true if there are free tiles in the goal state.
+	 * @param weight - weight of h(n) in f(n). Use 1 for an optimal search.
+	 * @param options - the settings of the Solver.
+	 */
+	public FringeSearch(PState root, PState goal, boolean multi, int weight, SolverOptions options)
+	{
+		this.root = root;
+		this.multi = multi;
+		this.weight = weight;
+		geometry = root.getGeometry();
+		heuristic = Heuristic.create(options.getHeuristic(), geometry.getN(), goal.getEmpty(),
+				IDAStarSearch.counted(goal, multi, options.isCountFreeTiles()));
+
+		goalOf = new byte[geometry.getCells()];
+		for(int i = 0; i < goalOf.length; i++)
+			goalOf[i] = goal.tileAt(i);
+	}
+
+	/**
+	 * Runs iterations with thresholds of increasing f until the goal is found.
+	 *
+	 * @return PState the goal state with path from root inside it or null if there is none.
+	 */
+	public PState search()
+	{
+		arena = new NodeArena(geometry.getCells());
+		next = new int[1 << 10];
+		prev = new int[1 << 10];
+		inFringe = new boolean[1 << 10];
+		expanded = 0;
+		generated = 0;
+		duplicates = 0;
+		fringeSize = 0;
+		peakFringe = 0;
+
+		byte board[] = root.toGrid();
+		long key[] = arena.encode(board, root.getEmpty());
+		int h = heuristic.reset(board);
+		int first = arena.add(~arena.find(key), key, root.getEmpty(), 0, h, -1, Constants.NONE);
+		head = NONE;
+		insertAfter(NONE, first);
+
+		int thresh = weight*h;
+		while(head != NONE)
+		{
+			if(statistics != null)
+				statistics.addIteration(thresh);
+
+			int min = Integer.MAX_VALUE;
+			int node = head;
+			while(node != NONE)
+			{
+				int g = arena.getG(node);
+				int f = g + weight*arena.getH(node);
+				if(f > thresh)
+				{
+					// Keep the node for the next iteration.
+					if(f < min)
+						min = f;
+					node = next[node];
+					continue;
+				}
+
+				arena.decode(node, board);
+				if(isGoal(board))
+				{
+					report();
+					PState state = root;
+					for(byte move: arena.constructPath(node))
+						state = state.slide(move);
+					return state;
+				}
+
+				expand(node, board, key);
+				expanded++;
+
+				// The children were put right after node so they come next.
+				int after = next[node];
+				remove(node);
+				node = after;
+			}
+
+			thresh = min;
+		}
+
+		report();
+		return null;
+	}
+
+	/**
+	 * Adds the counts of the search to statistics if it is set. Every node
+	 * seen stays in the arena.
+	 */
+	private void report()
+	{
+		if(statistics != null)
+			statistics.addSearch(generated, expanded, duplicates, peakFringe, arena.size());
+	}
+
+	/**
+	 * Makes search() add its counts and the threshold of every iteration to
+	 * statistics.
+	 *
+	 * @param statistics - the statistics of the solve or null.
+	 */
+	public void setStatistics(SolveStatistics statistics)
+	{
+		this.statistics = statistics;
+	}
+
+	/**
+	 * Puts the children of node reached with a lower g than before into the
+	 * fringe right after node, in the order IDA* tries them.
+	 *
+	 * @param node
+	 * @param board - the board of node.
+	 * @param key - used to hold the boards of the children.
+	 */
+	private void expand(int node, byte board[], long key[])
+	{
+		int empty = arena.getEmpty(node);
+		int g = arena.getG(node) + 1;
+		heuristic.reset(board);
+
+		int neighbors[] = geometry.neighbors(empty);
+		byte directions[] = geometry.directions(empty);
+		int last = node;
+		for(int i = 0; i < neighbors.length; i++)
+		{
+			int to = neighbors[i];
+			arena.slide(node, to, key);
+			generated++;
+			int child = arena.find(key);
+			if(child >= 0)
+			{
+				if(arena.getG(child) <= g)
+				{
+					duplicates++;
+					continue;
+				}
+
+				// A cheaper path moves the child to this place in the fringe.
+				arena.relink(child, g, node, directions[i]);
+				if(inFringe[child])
+					remove(child);
+			}
+			else
+			{
+				// Slide the tile at to into the empty square to find h of the child.
+				int tile = board[to];
+				int h = heuristic.move(tile, to, empty);
+				heuristic.move(tile, empty, to);
+				child = arena.add(~child, key, to, g, h, node, directions[i]);
+			}
+
+			insertAfter(last, child);
+			last = child;
+		}
+	}
+
+	/**
+	 * Checks board against the goal.
+	 *
+	 * @param board
+	 * @return true if every position the goal places holds its tile.
+	 */
+	private boolean isGoal(byte board[])
+	{
+		for(int i = 0; i < board.length; i++)
+		{
+			if(goalOf[i] != PState.FREE && goalOf[i] != board[i])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Inserts node after at or at the head if at is NONE.
+	 *
+	 * @param at - a node in the fringe or NONE.
+	 * @param node - a node not in the fringe.
+	 */
+	private void insertAfter(int at, int node)
+	{
+		if(node >= next.length)
+		{
+			int length = Math.max(node + 1, next.length << 1);
+			next = Arrays.copyOf(next, length);
+			prev = Arrays.copyOf(prev, length);
+			inFringe = Arrays.copyOf(inFringe, length);
+		}
+
+		int after = (at == NONE) ? head : next[at];
+		prev[node] = at;
+		next[node] = after;
+		if(after != NONE)
+			prev[after] = node;
+		if(at == NONE)
+			head = node;
+		else
+			next[at] = node;
+		inFringe[node] = true;
+
+		fringeSize++;
+		if(fringeSize > peakFringe)
+			peakFringe = fringeSize;
+	}
+
+	/**
+	 * Removes node from the fringe.
+	 *
+	 * @param node - a node in the fringe.
+	 */
+	private void remove(int node)
+	{
+		if(prev[node] == NONE)
+			head = next[node];
+		else
+			next[prev[node]] = next[node];
+		if(next[node] != NONE)
+			prev[next[node]] = prev[node];
+		inFringe[node] = false;
+		fringeSize--;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,317 @@
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hash distributed A* search. Every state is owned by the thread its hash
+ * picks and only that thread keeps it in its open list, so the threads never
+ * share an open or closed list. Successors owned by another thread are sent
+ * to it through a lock-free queue with many producers and one consumer.
+ *
+ * The open list of each thread keeps the lowest g of every state it has seen
+ * (see OpenList), so a state reached again with a lower g is opened again.
+ * The best goal found so far bounds the search. States with
+ * g(n) + h(n) >= g(goal) are dropped, so the search ends with an optimal
+ * goal when every thread runs out of states and no state is still queued.
+ *
+ * @author joshua
+ *
+ */
+public class HDAStarSearch
+{
+	private static final long IDLE_WAIT = 100000; // Nanoseconds an idle thread waits before looking for work again.
+
+	private PState root;
+	private PState goal;
+	private boolean multi;
+	private int weight; // Weight given to h(n).
+	private int threads;
+
+	private Inbox inboxes[]; // inboxes[t] holds the states sent to thread t.
+	private AtomicLong busy; // Number of working threads plus the number of states in the inboxes.
+	private AtomicReference<PState> best; // Best goal found so far.
+
+	// Counts of every thread, added as each thread ends.
+	private long expanded;
+	private long generated;
+	private long duplicates; // States dropped as added before with an equal or lower g.
+	private long peakOpen; // Sum of the largest open list of each thread.
+	private long seen; // States in the open lists' indexes.
+	private SolveStatistics statistics; // Where the counts go or null.
+
+	/**
+	 * Constructs the search from root to goal.
+	 *
+	 * @param root - the starting state.
+	 * @param goal - the goal state. May contain FREE tiles if multi is set.
+	 * @param multi - set this to true if there are free tiles in the goal state.
+	 * @param weight - weight of h(n) in f(n). Use 1 for an optimal search.
+	 * @param threads - the number of threads.
+	 */
+	public HDAStarSearch(PState root, PState goal, boolean multi, int weight, int threads)
+	{
+		this.root = root;
+		this.goal = goal;
+		this.multi = multi;
+		this.weight = weight;
+		this.threads = Math.max(1, threads);
+	}
+
+	/**
+	 * Runs the search on every thread until no thread has work left.
+	 *
+	 * @return PState the goal state with path from root inside it or null if there is none.
+	 */
+	public PState search()
+	{
+		inboxes = new Inbox[threads];
+		for(int t = 0; t < threads; t++)
+			inboxes[t] = new Inbox();
+		best = new AtomicReference<PState>(null);
+		expanded = generated = duplicates = peakOpen = seen = 0;
+
+		// Every thread starts working. The root is the first state sent.
+		busy = new AtomicLong(threads + 1);
+		inboxes[owner(root)].offer(root);
+
+		Thread workers[] = new Thread[threads];
+		for(int t = 0; t < threads; t++)
+		{
+			final int id = t;
+			workers[t] = new Thread(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					expand(id);
+				}
+			}, "HDA* " + t);
+			workers[t].start();
+		}
+
+		for(Thread worker: workers)
+		{
+			try
+			{
+				worker.join();
+			} catch(InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		if(statistics != null)
+			statistics.addSearch(generated, expanded, duplicates, peakOpen, seen);
+		return best.get();
+	}
+
+	/**
+	 * Makes search() add its counts to statistics.
+	 *
+	 * @param statistics - the statistics of the solve or null.
+	 */
+	public void setStatistics(SolveStatistics statistics)
+	{
+		this.statistics = statistics;
+	}
+
+	/**
+	 * Expands the states owned by thread id until every thread is idle and
+	 * no state is left in an inbox.
+	 *
+	 * @param id - the thread.
+	 */
+	private void expand(int id)
+	{
+		OpenList open = new OpenList(weight);
+		Inbox inbox = inboxes[id];
+		boolean working = true;
+		long count = 0, children = 0, dropped = 0; // Counts of this thread.
+		int largest = 0;
+
+		while(true)
+		{
+			// Take in the states other threads sent.
+			PState state;
+			while((state = inbox.poll()) != null)
+			{
+				if(!working)
+				{
+					busy.incrementAndGet();
+					working = true;
+				}
+				if(!isBounded(state) && !open.add(state))
+					dropped++;
+				busy.decrementAndGet();
+			}
+
+			state = open.poll();
+			if(state == null)
+			{
+				if(working)
+				{
+					busy.decrementAndGet();
+					working = false;
+				}
+
+				// Once busy is 0 no thread can send anything again.
+				if(busy.get() == 0)
+				{
+					addCounts(count, children, dropped, largest, open.seen());
+					return;
+				}
+
+				LockSupport.parkNanos(IDLE_WAIT);
+				continue;
+			}
+
+			if(isBounded(state))
+				continue;
+
+			if(state.isGoal(goal, multi))
+			{
+				improve(state);
+				continue;
+			}
+
+			ArrayList<PState> successors = state.genSuccessors();
+			count++;
+			children += successors.size();
+			for(PState child: successors)
+			{
+				if(isBounded(child))
+					continue;
+
+				int owner = owner(child);
+				if(owner == id)
+				{
+					if(!open.add(child))
+						dropped++;
+				}
+				else
+				{
+					busy.incrementAndGet();
+					inboxes[owner].offer(child);
+				}
+			}
+			largest = Math.max(largest, open.size());
+		}
+	}
+
+	/**
+	 * Adds the counts of a thread that ended.
+	 *
+	 * @param expanded
+	 * @param generated
+	 * @param duplicates
+	 * @param peakOpen - largest open list of the thread.
+	 * @param seen - states in the thread's index.
+	 */
+	private synchronized void addCounts(long expanded, long generated, long duplicates, int peakOpen, int seen)
+	{
+		this.expanded += expanded;
+		this.generated += generated;
+		this.duplicates += duplicates;
+		this.peakOpen += peakOpen;
+		this.seen += seen;
+	}
+
+	/**
+	 * Checks if state can not lead to a better goal than the best found.
+	 * With free tiles in the goal h(n) is not a bound so only g(n) is used.
+	 *
+	 * @param state
+	 * @return true if state can be dropped.
+	 */
+	private boolean isBounded(PState state)
+	{
+		PState found = best.get();
+		if(found == null)
+			return false;
+
+		int f = state.getG() + (multi ? 0 : state.getH());
+		return f >= found.getG();
+	}
+
+	/**
+	 * Makes state the best goal if it is cheaper than the best goal.
+	 *
+	 * @param state - a goal state.
+	 */
+	private void improve(PState state)
+	{
+		PState found;
+		do
+		{
+			found = best.get();
+			if(found != null && found.getG() <= state.getG())
+				return;
+		} while(!best.compareAndSet(found, state));
+	}
+
+	/**
+	 * Returns the thread owning state. Uses the high bits of the hash since
+	 * the open lists index states by the low bits.
+	 *
+	 * @param state
+	 * @return int owner
+	 */
+	private int owner(PState state)
+	{
+		return (int)(((state.hashCode() & 0xFFFFFFFFL)*threads) >>> 32);
+	}
+
+	/**
+	 * Queue of states with many producers and one consumer. Producers swap
+	 * themselves in as the head with a single atomic operation and the
+	 * consumer follows the links from the tail, so neither side locks.
+	 */
+	private static class Inbox
+	{
+		private static class Node
+		{
+			private PState state;
+			private volatile Node next;
+		}
+
+		private AtomicReference<Node> head; // Last node added. Shared by the producers.
+		private Node tail; // Last node taken. Only used by the consumer.
+
+		private Inbox()
+		{
+			tail = new Node();
+			head = new AtomicReference<Node>(tail);
+		}
+
+		/**
+		 * Adds state. Safe to call from any thread.
+		 *
+		 * @param state
+		 */
+		private void offer(PState state)
+		{
+			Node node = new Node();
+			node.state = state;
+			head.getAndSet(node).next = node;
+		}
+
+		/**
+		 * Removes the oldest state. Only called by the owning thread. A state
+		 * whose producer has not linked it yet is returned by a later call.
+		 *
+		 * @return PState the state or null if there is none.
+		 */
+		private PState poll()
+		{
+			Node next = tail.next;
+			if(next == null)
+				return null;
+
+			tail = next;
+			PState state = next.state;
+			next.state = null;
+			return state;
+		}
+	}
+}
\ No newline at end of file
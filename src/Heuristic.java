@@ -0,0 +1,81 @@
+/**
+ * Estimate of the number of moves from a board to the goal. A heuristic is
+ * used by a single search on a single board. It is set to the board with
+ * reset() and kept up to date with move() as tiles slide, so a move only
+ * recomputes the part of the estimate the moved tile changes. A move is
+ * undone by moving the tile back.
+ *
+ * @author joshua
+ *
+ */
+public abstract class Heuristic
+{
+	// Heuristics that can be chosen with Options.HEURISTIC.
+	public static final int MANHATTAN = 0, LINEAR_CONFLICT = 1, WALKING_DISTANCE = 2;
+
+	/**
+	 * Sets the heuristic to board.
+	 *
+	 * @param board - array representing the state of the board.
+	 * @return h - the value of board.
+	 */
+	public abstract int reset(byte board[]);
+
+	/**
+	 * Slides tile from position from into the empty square at to and
+	 * updates the value.
+	 *
+	 * @param tile - the tile that moved.
+	 * @param from - the old position of tile.
+	 * @param to - the new position of tile.
+	 * @return h - the value after the move.
+	 */
+	public abstract int move(int tile, int from, int to);
+
+	/**
+	 * Creates a heuristic for the same board and goal that can be used by
+	 * another search or thread. It has to be reset before it is used.
+	 *
+	 * @return Heuristic the copy.
+	 */
+	public abstract Heuristic copy();
+
+	/**
+	 * Creates a heuristic for an n by n board.
+	 *
+	 * @param type - MANHATTAN, LINEAR_CONFLICT or WALKING_DISTANCE.
+	 * @param n - the number of rows and columns.
+	 * @param goalEmpty - position of the empty square in the goal.
+	 * @return Heuristic the new heuristic.
+	 */
+	public static Heuristic create(int type, int n, int goalEmpty)
+	{
+		return create(type, n, goalEmpty, null);
+	}
+
+	/**
+	 * Creates a heuristic for an n by n board that only counts the tiles of
+	 * a subgoal. Walking distance only has tables for boards up to 4x4 and
+	 * a goal with every tile, otherwise linear conflict is used.
+	 *
+	 * @param type - MANHATTAN, LINEAR_CONFLICT or WALKING_DISTANCE.
+	 * @param n - the number of rows and columns.
+	 * @param goalEmpty - position of the empty square in the goal.
+	 * @param counted - counted[tile] is true if the goal places tile or null to count every tile.
+	 * @return Heuristic the new heuristic.
+	 */
+	public static Heuristic create(int type, int n, int goalEmpty, boolean counted[])
+	{
+		switch(type)
+		{
+		case WALKING_DISTANCE:
+			if(n <= WalkingDistance.MAX_N && counted == null)
+				return new WalkingDistance(n, goalEmpty);
+			return new LinearConflict(n, counted);
+		case LINEAR_CONFLICT:
+			return new LinearConflict(n, counted);
+		default:
+			return new ManhattanDistance(n, counted);
+		}
+	}
+}
\ No newline at end of file
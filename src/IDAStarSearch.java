@@ -0,0 +1,768 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Recursive IDA* search on a single mutable board. Moves are applied and
+ * undone in place, the heuristic is updated as tiles move (see Heuristic)
+ * and moves a MoveAutomaton rejects are never tried, so nothing is
+ * allocated per node. The PState path is only built once the goal is found.
+ * Boards reached again at a higher cost are also cut off with the
+ * TranspositionTable of the Solver if it is given one.
+ *
+ * With more than one thread each iteration first expands the tree to a
+ * shallow frontier and searches the subtrees below it in a ForkJoinPool.
+ * The frontier is kept in the order a single thread would reach it and the
+ * goal found in the earliest subtree wins, so the solution is the same as
+ * with one thread. Subtrees after a subtree holding the goal are cancelled.
+ * The threads share the transposition table and cut off each other's boards,
+ * so with the table on the solution can differ from one thread's but is
+ * found in the same iteration.
+ *
+ * Weighted searches control how much work is repeated (IDA*_CR). The f of
+ * every node cut off is counted and the next threshold is the lowest f
+ * that lets about as many new nodes in as the iteration expanded, so each
+ * iteration roughly doubles the work instead of adding a sliver of it. The
+ * threshold rises by at most GROWTH_PERCENT per iteration. The iteration
+ * that finds a goal is finished, cutting off paths costing more than the
+ * best goal found, and the cheapest goal wins. With an admissible h the
+ * solution costs at most (1 + GROWTH_PERCENT/100)*weight times the optimum.
+ * With free tiles there are too many goals to finish the iteration, so the
+ * first goal found ends it and only the thresholds are controlled.
+ *
+ * Every iteration is recorded as an IterationEvent if Java Flight Recorder
+ * was started when the search began. The event classes are not loaded
+ * otherwise, since loading the first one starts up the recorder's classes.
+ *
+ * @author joshua
+ *
+ */
+public class IDAStarSearch
+{
+	private static final int FOUND = -1;
+	private static final int FRONTIER_PER_THREAD = 32; // Subtrees to aim for per thread.
+	private static final int MAX_FRONTIER_DEPTH = 16;
+	private static final int GROWTH_PERCENT = 25; // Most a controlled threshold rises per iteration.
+
+	// Directions in the order they are tried. Same order as PState.genSuccessors().
+	private static final byte ORDER[] = {Constants.UP, Constants.DOWN, Constants.LEFT, Constants.RIGHT};
+
+	private static final HashMap<Integer, ForkJoinPool> pools = new HashMap<Integer, ForkJoinPool>(); // By thread count. Shared by every search.
+
+	private PState root;
+	private int weight; // Weight given to h(n).
+	private int threads;
+
+	private byte goalOf[]; // goalOf[pos] is the tile the goal requires at pos or FREE.
+	private boolean multi;
+
+	private int moveTo[][]; // moveTo[pos][direction] is the new empty square or -1.
+	private MoveAutomaton automaton; // Machine rejecting duplicate moves.
+	private int pruning[]; // pruning[state*4 + direction] is the next state of automaton or REJECT.
+	private Heuristic heuristic;
+
+	private BoardGeometry geometry;
+	private TranspositionTable table; // Lowest g of boards seen or null if there is none.
+	private int searchId; // Id of this search in table.
+
+	// Frontier index of the earliest subtree holding the goal in this iteration.
+	private AtomicInteger first;
+	private byte solution[]; // Moves from root to the goal once found.
+
+	// Controlled re-expansion of weighted searches.
+	private boolean controlled;
+	private boolean finishing; // Finish the iteration finding a goal. Only without free tiles.
+	private volatile int bound; // Cost of the cheapest goal found. Paths costing more are cut off.
+	private int bestIndex; // Frontier index of the subtree holding the cheapest goal.
+	private long cut[]; // cut[f] is the number of nodes cut off at f in this iteration.
+	private long expanded; // Nodes expanded in this iteration.
+
+	// Counts of the whole search.
+	private long nodes; // Nodes expanded.
+	private long generated;
+	private long duplicates; // Moves the MoveAutomaton rejected and boards the table cut off.
+	private SolveStatistics statistics; // Where the counts go or null.
+
+	/**
+	 * Constructs the search from root to goal using the heuristic chosen in
+	 * options. With free tiles in the goal the heuristic only counts the tiles
+	 * the goal places unless options count free tiles.
+	 *
+	 * @param root - the starting state.
+	 * @param goal - the goal state. May contain FREE tiles if multi is set.
+	 * @param multi - set this to true if there are free tiles in the goal state.
+	 * @param weight - weight of h(n) in f(n). Use 1 for an optimal search.
+	 * @param options - the settings of the Solver.
+	 */
+	public IDAStarSearch(PState root, PState goal, boolean multi, int weight, SolverOptions options)
+	{
+		this(root, goal, multi, weight, Heuristic.create(options.getHeuristic(), goal.getGeometry().getN(), goal.getEmpty(),
+				counted(goal, multi, options.isCountFreeTiles())), options);
+	}
+
+	/**
+	 * Finds the tiles goal places.
+	 *
+	 * @param goal - the goal state.
+	 * @param multi - set this to true if there are free tiles in the goal state.
+	 * @param countFreeTiles - set this to true to count every tile anyway.
+	 * @return boolean[] counted where counted[tile] is true if goal places tile or null if it places every tile.
+	 */
+	static boolean[] counted(PState goal, boolean multi, boolean countFreeTiles)
+	{
+		if(!multi || countFreeTiles)
+			return null;
+
+		int cells = goal.getGeometry().getCells();
+		boolean counted[] = new boolean[cells];
+		for(int i = 0; i < cells; i++)
+		{
+			if(goal.tileAt(i) >= 0)
+				counted[goal.tileAt(i)] = true;
+		}
+		return counted;
+	}
+
+	/**
+	 * Constructs the search from root to goal using heuristic. The heuristic
+	 * must be built for the goal and is only used by this search. The number
+	 * of threads is taken from options.
+	 *
+	 * @param root - the starting state.
+	 * @param goal - the goal state. May contain FREE tiles if multi is set.
+	 * @param multi - set this to true if there are free tiles in the goal state.
+	 * @param weight - weight of h(n) in f(n). Use 1 for an optimal search.
+	 * @param heuristic - the heuristic.
+	 * @param options - the settings of the Solver.
+	 */
+	public IDAStarSearch(PState root, PState goal, boolean multi, int weight, Heuristic heuristic, SolverOptions options)
+	{
+		this.root = root;
+		this.weight = weight;
+		this.multi = multi;
+		this.heuristic = heuristic;
+		this.threads = Math.max(1, options.getThreads());
+
+		int cells = root.getGeometry().getCells();
+		goalOf = new byte[cells];
+		for(int i = 0; i < cells; i++)
+			goalOf[i] = goal.tileAt(i);
+
+		geometry = root.getGeometry();
+		moveTo = geometry.getMoveTable();
+		automaton = MoveAutomaton.get();
+		pruning = automaton.getTable();
+		table = null;
+
+		first = new AtomicInteger(Integer.MAX_VALUE);
+		solution = null;
+
+		controlled = (weight > 1 && options.isControlledReexpansion());
+		finishing = controlled && !multi;
+		bound = Integer.MAX_VALUE;
+		bestIndex = Integer.MAX_VALUE;
+		cut = new long[64];
+		expanded = 0;
+		nodes = 0;
+		generated = 0;
+		duplicates = 0;
+	}
+
+	/**
+	 * Makes the search cut off boards reached again at a higher cost with
+	 * table. The table must not be used by another search at the same time.
+	 *
+	 * @param table - the table of the Solver or null.
+	 */
+	public void setTranspositionTable(TranspositionTable table)
+	{
+		this.table = table;
+		if(table != null)
+			searchId = table.newSearch();
+	}
+
+	/**
+	 * Replaces the machine rejecting duplicate moves, for instance with
+	 * MoveAutomaton.inverses() to prune like plain IDA*.
+	 *
+	 * @param automaton
+	 */
+	public void setMoveAutomaton(MoveAutomaton automaton)
+	{
+		this.automaton = automaton;
+		pruning = automaton.getTable();
+	}
+
+	/**
+	 * Makes search() add its counts and the threshold of every iteration to
+	 * statistics.
+	 *
+	 * @param statistics - the statistics of the solve or null.
+	 */
+	public void setStatistics(SolveStatistics statistics)
+	{
+		this.statistics = statistics;
+	}
+
+	/**
+	 * Runs IDA* with thresholds of increasing f until the goal is found.
+	 *
+	 * @return PState the goal state with path from root inside it or null if there is none.
+	 */
+	public PState search()
+	{
+		Worker main = new Worker(heuristic, new byte[0], 0);
+		int h = main.h;
+		int thresh = weight*h;
+		boolean recording = FlightRecorder.isInitialized();
+		while(thresh != FOUND && thresh < Integer.MAX_VALUE)
+		{
+			if(statistics != null)
+				statistics.addIteration(thresh);
+
+			IterationEvent event = recording ? new IterationEvent() : null;
+			if(event != null)
+				event.begin();
+			long before = nodes, children = generated;
+
+			int min;
+			if(threads > 1)
+			{
+				min = parallelSearch(main, thresh);
+			}
+			else
+			{
+				min = main.search(0, h, MoveAutomaton.START, thresh);
+				merge(main);
+			}
+
+			if(event != null && event.shouldCommit())
+			{
+				event.boardSize = geometry.getN();
+				event.threshold = thresh;
+				event.multi = multi;
+				event.expanded = nodes - before;
+				event.generated = generated - children;
+				event.commit();
+			}
+
+			if(min == FOUND || (finishing && solution != null))
+				thresh = FOUND;
+			else
+				thresh = controlled ? nextThreshold(thresh, min) : min;
+		}
+
+		if(statistics != null)
+			statistics.addSearch(generated, nodes, duplicates, 0, 0);
+		if(thresh != FOUND)
+			return null;
+
+		byte moves[] = (solution != null) ? solution : Arrays.copyOf(main.path, main.depth);
+		PState state = root;
+		for(int i = 0; i < moves.length; i++)
+			state = state.slide(moves[i]);
+		return state;
+	}
+
+	/**
+	 * Runs one iteration with the subtrees below a frontier searched in parallel.
+	 *
+	 * @param main - worker on the root.
+	 * @param thresh - the f cut off.
+	 * @return FOUND if the goal was found otherwise the minimum f over thresh.
+	 */
+	private int parallelSearch(Worker main, int thresh)
+	{
+		// Deepen the frontier until there are enough subtrees to keep every thread busy.
+		ArrayList<byte[]> frontier = new ArrayList<byte[]>();
+		int min = Integer.MAX_VALUE;
+		for(int limit = 1; limit <= MAX_FRONTIER_DEPTH; limit++)
+		{
+			frontier.clear();
+			// Only the last pass is counted for the next threshold.
+			nodes += main.expanded;
+			main.clearCounts();
+			min = main.collect(0, main.h, MoveAutomaton.START, thresh, limit, frontier);
+			if(min == FOUND || frontier.size() >= threads*FRONTIER_PER_THREAD || frontier.isEmpty())
+				break;
+		}
+		merge(main);
+
+		first.set(Integer.MAX_VALUE);
+		int t = pool(threads).invoke(new Subtrees(frontier, 0, frontier.size(), thresh));
+		if(first.get() != Integer.MAX_VALUE)
+			return FOUND;
+		return Math.min(min, t);
+	}
+
+	/**
+	 * Picks the threshold of the next controlled iteration. It is the lowest f
+	 * at which the nodes cut off add up to the nodes expanded, but at least
+	 * min and at most GROWTH_PERCENT over thresh. Clears the counts.
+	 *
+	 * @param thresh - the threshold of the iteration that ended.
+	 * @param min - the minimum f over thresh.
+	 * @return int the next threshold or Integer.MAX_VALUE if nothing was cut off.
+	 */
+	private int nextThreshold(int thresh, int min)
+	{
+		if(min == Integer.MAX_VALUE)
+			return min;
+
+		int next = min;
+		long sum = 0;
+		for(int f = min; f < cut.length; f++)
+		{
+			sum += cut[f];
+			next = f;
+			if(sum >= expanded)
+				break;
+		}
+
+		int most = thresh + Math.max(1, thresh*GROWTH_PERCENT/100);
+		Arrays.fill(cut, 0);
+		expanded = 0;
+		return Math.max(min, Math.min(next, most));
+	}
+
+	/**
+	 * Adds the counts of worker to the counts of the iteration and clears them.
+	 *
+	 * @param worker
+	 */
+	private synchronized void merge(Worker worker)
+	{
+		if(worker.cut.length > cut.length)
+			cut = Arrays.copyOf(cut, worker.cut.length);
+		for(int f = 0; f < worker.cut.length; f++)
+			cut[f] += worker.cut[f];
+		expanded += worker.expanded;
+		nodes += worker.expanded;
+		generated += worker.generated;
+		duplicates += worker.duplicates;
+		worker.generated = 0;
+		worker.duplicates = 0;
+		worker.clearCounts();
+	}
+
+	/**
+	 * Records the goal found in the subtree at index of a controlled search if
+	 * it is cheaper than the best goal, or as cheap and in an earlier subtree.
+	 *
+	 * @param index - frontier index of the subtree.
+	 * @param moves - path holding the moves from root to the goal.
+	 * @param g - cost of the goal.
+	 */
+	private synchronized void improve(int index, byte moves[], int g)
+	{
+		if(g < bound || (g == bound && index < bestIndex))
+		{
+			solution = Arrays.copyOf(moves, g);
+			bestIndex = index;
+			bound = g;
+		}
+	}
+
+	/**
+	 * Returns the pool with threads workers shared by every search, created
+	 * when first used. Pools are kept by size and never replaced, so searches
+	 * asking for different thread counts do not leak workers or take a pool
+	 * from under each other. Idle workers end on their own.
+	 *
+	 * @param threads - the number of threads.
+	 * @return ForkJoinPool pool
+	 */
+	private static synchronized ForkJoinPool pool(int threads)
+	{
+		ForkJoinPool pool = pools.get(threads);
+		if(pool == null)
+		{
+			pool = new ForkJoinPool(threads);
+			pools.put(threads, pool);
+		}
+		return pool;
+	}
+
+	/**
+	 * Records the goal found in the subtree at index unless an earlier
+	 * subtree already holds a goal.
+	 *
+	 * @param index - frontier index of the subtree.
+	 * @param moves - moves from root to the goal.
+	 */
+	private synchronized void found(int index, byte moves[])
+	{
+		if(index < first.get())
+		{
+			first.set(index);
+			solution = moves;
+		}
+	}
+
+	/**
+	 * Checks if tile at pos misses the goal.
+	 *
+	 * @param pos - position on the board.
+	 * @param tile - the tile or EMPTY.
+	 * @return 1 if the goal requires another tile at pos otherwise 0.
+	 */
+	private int misplaced(int pos, byte tile)
+	{
+		return (goalOf[pos] != PState.FREE && goalOf[pos] != tile) ? 1 : 0;
+	}
+
+	/**
+	 * Searches the subtrees below frontier[from] to frontier[to - 1], splitting
+	 * the range in half until one subtree is left so idle threads can steal.
+	 */
+	private class Subtrees extends RecursiveTask<Integer>
+	{
+		private static final long serialVersionUID = 1L;
+
+		private ArrayList<byte[]> frontier;
+		private int from, to;
+		private int thresh;
+
+		private Subtrees(ArrayList<byte[]> frontier, int from, int to, int thresh)
+		{
+			this.frontier = frontier;
+			this.from = from;
+			this.to = to;
+			this.thresh = thresh;
+		}
+
+		@Override
+		protected Integer compute()
+		{
+			if(to - from > 1)
+			{
+				int mid = (from + to) >>> 1;
+				Subtrees left = new Subtrees(frontier, from, mid, thresh);
+				Subtrees right = new Subtrees(frontier, mid, to, thresh);
+				right.fork();
+				int min = left.compute();
+				return Math.min(min, right.join());
+			}
+
+			// Skip subtrees after a subtree already holding the goal.
+			if(from >= to || from > first.get())
+				return Integer.MAX_VALUE;
+
+			byte prefix[] = frontier.get(from);
+			Worker worker = new Worker(heuristic.copy(), prefix, from);
+			int t = worker.search(prefix.length, worker.h, automaton.run(prefix), thresh);
+			merge(worker);
+			if(t == FOUND)
+			{
+				found(from, Arrays.copyOf(worker.path, worker.depth));
+				return Integer.MAX_VALUE;
+			}
+			return t;
+		}
+	}
+
+	/**
+	 * A board searched by one thread together with its heuristic and path.
+	 */
+	private class Worker
+	{
+		private byte board[]; // The board being searched.
+		private int empty; // Location of the empty square on board.
+		private int misplaced; // Number of positions not holding the tile the goal requires.
+		private Heuristic heuristic;
+		private int h; // Heuristic value of the board the worker starts on.
+		private long key; // Zobrist key of board.
+
+		private byte path[]; // path[g] is the move taken at depth g.
+		private int depth; // Length of the solution path once found.
+		private int index; // Frontier index of the subtree searched.
+
+		// Counts of a controlled search.
+		private long cut[]; // cut[f] is the number of nodes cut off at f.
+		private long expanded;
+
+		// Counts for the statistics. Not cleared by clearCounts().
+		private long generated;
+		private long duplicates;
+
+		// Copies of the fields of the search read at every node.
+		private int weight;
+		private boolean multi;
+		private int moveTo[][];
+		private int pruning[];
+		private BoardGeometry geometry;
+		private TranspositionTable table;
+		private int searchId;
+		private boolean controlled;
+		private boolean finishing;
+
+		/**
+		 * Constructs the worker on the board reached from root by prefix.
+		 *
+		 * @param heuristic - heuristic used only by this worker.
+		 * @param prefix - moves from root.
+		 * @param index - frontier index of the subtree.
+		 */
+		private Worker(Heuristic heuristic, byte prefix[], int index)
+		{
+			this.heuristic = heuristic;
+			this.index = index;
+			this.weight = IDAStarSearch.this.weight;
+			this.multi = IDAStarSearch.this.multi;
+			this.moveTo = IDAStarSearch.this.moveTo;
+			this.pruning = IDAStarSearch.this.pruning;
+			this.geometry = IDAStarSearch.this.geometry;
+			this.table = IDAStarSearch.this.table;
+			this.searchId = IDAStarSearch.this.searchId;
+			this.controlled = IDAStarSearch.this.controlled;
+			this.finishing = IDAStarSearch.this.finishing;
+			cut = new long[controlled ? 64 : 0];
+			expanded = 0;
+
+			board = root.toGrid();
+			empty = root.getEmpty();
+			for(byte direction: prefix)
+			{
+				int to = moveTo[empty][direction];
+				board[empty] = board[to];
+				board[to] = PState.EMPTY;
+				empty = to;
+			}
+
+			misplaced = 0;
+			for(int i = 0; i < board.length; i++)
+				misplaced += misplaced(i, board[i]);
+
+			h = heuristic.reset(board);
+			key = geometry.zobrist(board);
+			path = Arrays.copyOf(prefix, Math.max(64, prefix.length << 1));
+			depth = 0;
+		}
+
+		/**
+		 * Depth first search below the current board cut off at f > thresh.
+		 *
+		 * @param g - cost from root to the current board.
+		 * @param h - heuristic value of the current board.
+		 * @param state - state of the MoveAutomaton after the moves to the current board.
+		 * @param thresh - the f cut off.
+		 * @return FOUND if the goal was found otherwise the minimum f over thresh.
+		 */
+		private int search(int g, int h, int state, int thresh)
+		{
+			int f = g + weight*h;
+			if(f > thresh)
+			{
+				if(controlled)
+					count(f);
+				return f;
+			}
+
+			if(isGoal(h))
+			{
+				if(finishing)
+				{
+					// Finish the iteration looking for a cheaper goal.
+					improve(index, path, g);
+					return Integer.MAX_VALUE;
+				}
+
+				depth = g;
+				return FOUND;
+			}
+
+			// Give up once an earlier subtree holds the goal. Nothing comes before subtree 0.
+			if(index > 0 && index > first.get())
+				return Integer.MAX_VALUE;
+
+			// Cut off paths costing more than the cheapest goal.
+			if(finishing && g + h > bound)
+				return Integer.MAX_VALUE;
+
+			/* Cut off the board if it was reached with a lower g, or with the same g
+			 * in this iteration. The threshold tells the iterations apart. The
+			 * cheaper path reaches every f below it so the minimum is not lost. */
+			if(table != null && table.visit(key, g, searchId, thresh))
+			{
+				duplicates++;
+				return Integer.MAX_VALUE;
+			}
+			expanded++;
+
+			if(g == path.length)
+				path = Arrays.copyOf(path, g << 1);
+
+			int min = Integer.MAX_VALUE;
+			int from = empty;
+			for(byte direction: ORDER)
+			{
+				// Skip moves reaching a board an earlier sequence of moves reaches.
+				int after = pruning[(state << 2) | direction];
+				if(after == MoveAutomaton.REJECT)
+				{
+					if(moveTo[from][direction] >= 0)
+						duplicates++;
+					continue;
+				}
+
+				int to = moveTo[from][direction];
+				if(to < 0)
+					continue;
+				generated++;
+
+				// Slide the tile at to into the empty square.
+				byte tile = board[to];
+				board[from] = tile;
+				board[to] = PState.EMPTY;
+				empty = to;
+				path[g] = direction;
+
+				int change = 0;
+				if(multi)
+				{
+					change = misplaced(from, tile) + misplaced(to, PState.EMPTY) - misplaced(from, PState.EMPTY) - misplaced(to, tile);
+					misplaced += change;
+				}
+
+				long keyChange = geometry.zobristMove(tile, to, from);
+				key ^= keyChange;
+
+				int t = search(g + 1, heuristic.move(tile, to, from), after, thresh);
+				heuristic.move(tile, from, to);
+				misplaced -= change;
+				key ^= keyChange;
+
+				board[to] = tile;
+				board[from] = PState.EMPTY;
+				empty = from;
+
+				if(t == FOUND)
+					return FOUND;
+				if(t < min)
+					min = t;
+			}
+
+			return min;
+		}
+
+		/**
+		 * Collects the paths to the boards at depth limit with f <= thresh in
+		 * the order search() reaches them. Stops at the first goal above limit
+		 * and collects the path to it as well.
+		 *
+		 * @param g - cost from root to the current board.
+		 * @param h - heuristic value of the current board.
+		 * @param state - state of the MoveAutomaton after the moves to the current board.
+		 * @param thresh - the f cut off.
+		 * @param limit - depth of the frontier.
+		 * @param frontier - list the paths are added to.
+		 * @return FOUND if a goal was collected otherwise the minimum f over thresh above limit.
+		 */
+		private int collect(int g, int h, int state, int thresh, int limit, ArrayList<byte[]> frontier)
+		{
+			int f = g + weight*h;
+			if(f > thresh)
+			{
+				if(controlled)
+					count(f);
+				return f;
+			}
+
+			// A search finishing the iteration searches a goal like any other subtree.
+			if(g == limit || isGoal(h))
+			{
+				frontier.add(Arrays.copyOf(path, g));
+				return (isGoal(h) && !finishing) ? FOUND : Integer.MAX_VALUE;
+			}
+			expanded++;
+
+			int min = Integer.MAX_VALUE;
+			int from = empty;
+			for(byte direction: ORDER)
+			{
+				int after = pruning[(state << 2) | direction];
+				if(after == MoveAutomaton.REJECT)
+				{
+					if(moveTo[from][direction] >= 0)
+						duplicates++;
+					continue;
+				}
+
+				int to = moveTo[from][direction];
+				if(to < 0)
+					continue;
+				generated++;
+
+				byte tile = board[to];
+				board[from] = tile;
+				board[to] = PState.EMPTY;
+				empty = to;
+				path[g] = direction;
+
+				int change = 0;
+				if(multi)
+				{
+					change = misplaced(from, tile) + misplaced(to, PState.EMPTY) - misplaced(from, PState.EMPTY) - misplaced(to, tile);
+					misplaced += change;
+				}
+
+				int t = collect(g + 1, heuristic.move(tile, to, from), after, thresh, limit, frontier);
+				heuristic.move(tile, from, to);
+				misplaced -= change;
+
+				board[to] = tile;
+				board[from] = PState.EMPTY;
+				empty = from;
+
+				if(t == FOUND)
+					return FOUND;
+				if(t < min)
+					min = t;
+			}
+
+			return min;
+		}
+
+		/**
+		 * Counts a node cut off at f.
+		 *
+		 * @param f
+		 */
+		private void count(int f)
+		{
+			if(f >= cut.length)
+				cut = Arrays.copyOf(cut, Math.max(f + 1, cut.length << 1));
+			cut[f]++;
+		}
+
+		/**
+		 * Clears the counts.
+		 */
+		private void clearCounts()
+		{
+			Arrays.fill(cut, 0);
+			expanded = 0;
+		}
+
+		/**
+		 * Checks the current board against the goal. Without free tiles the goal
+		 * is the only board with a heuristic value of 0. With free tiles the
+		 * number of misplaced positions is kept up to date as tiles move.
+		 *
+		 * @param h - heuristic value of the current board.
+		 * @return true if the board is a goal false otherwise.
+		 */
+		private boolean isGoal(int h)
+		{
+			if(!multi)
+				return h == 0;
+
+			return misplaced == 0;
+		}
+	}
+}
\ No newline at end of file
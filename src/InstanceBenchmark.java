@@ -0,0 +1,316 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Runs Solver over a set of instances, such as Korf's published 15-puzzle
+ * instances, one at a time, and writes a report with a line for every
+ * instance. The instances are read from a file with one board per line: a
+ * name, the optimal number of moves or "-" if it is not known, and the
+ * goal cell of the piece on each cell as for BatchSolver. Lines starting
+ * with # are comments.
+ *
+ * The report is comma separated with a header. It holds the wall time, the
+ * nodes expanded, the peak heap used and the length of the solution next
+ * to the optimum. Given the report of an earlier run as a baseline, every
+ * instance that got slower, expanded more nodes or found a longer solution
+ * is flagged and the exit status is 2.
+ *
+ * @author joshua
+ *
+ */
+public class InstanceBenchmark
+{
+	private static final String HEADER = "instance,n,optimum,length,excess,millis,expanded,peak_mb";
+	private static final long MIN_MILLIS = 20; // Slowdowns of fewer milliseconds are noise.
+
+	/**
+	 * An instance and its result.
+	 */
+	private static class Instance
+	{
+		private String name;
+		private int n;
+		private int optimum; // -1 if not known.
+		private PState root;
+
+		private int length;
+		private long millis;
+		private long expanded;
+		private long peak; // Peak heap used in bytes.
+	}
+
+	private int goalEmpty;
+	private SolverOptions options;
+	private List<MemoryPoolMXBean> heap;
+
+	/**
+	 * Constructs the benchmark.
+	 *
+	 * @param goalEmpty - the goal cell of the empty square.
+	 * @param options - the settings of every solver. Statistics must be on.
+	 */
+	public InstanceBenchmark(int goalEmpty, SolverOptions options)
+	{
+		this.goalEmpty = goalEmpty;
+		this.options = options;
+		heap = new ArrayList<MemoryPoolMXBean>();
+		for(MemoryPoolMXBean pool: ManagementFactory.getMemoryPoolMXBeans())
+		{
+			if(pool.getType() == MemoryType.HEAP)
+				heap.add(pool);
+		}
+	}
+
+	/**
+	 * Reads the instances in file.
+	 *
+	 * @param file
+	 * @return ArrayList<Instance> instances in the order of the file.
+	 * @throws IOException if the file can not be read or holds a board that can not be solved.
+	 */
+	private ArrayList<Instance> read(String file) throws IOException
+	{
+		ArrayList<Instance> instances = new ArrayList<Instance>();
+		BufferedReader in = new BufferedReader(new FileReader(file));
+		try
+		{
+			String line;
+			for(int number = 1; (line = in.readLine()) != null; number++)
+			{
+				line = line.trim();
+				if(line.isEmpty() || line.startsWith("#"))
+					continue;
+
+				String fields[] = line.split("\\s+");
+				byte numbers[] = new byte[Math.max(0, fields.length - 2)];
+				Instance instance = new Instance();
+				try
+				{
+					instance.name = fields[0];
+					instance.optimum = fields[1].equals("-") ? -1 : Integer.parseInt(fields[1]);
+					for(int i = 0; i < numbers.length; i++)
+						numbers[i] = (byte)Integer.parseInt(fields[i + 2]);
+				} catch(RuntimeException e)
+				{
+					throw new IOException(file + ":" + number + ": not an instance");
+				}
+
+				instance.root = BatchSolver.toState(numbers, goalEmpty);
+				if(instance.root == null || !BatchSolver.isSolvable(numbers, instance.root.getEmpty(), goalEmpty))
+					throw new IOException(file + ":" + number + ": board can not be solved");
+				instance.n = instance.root.getGeometry().getN();
+				instances.add(instance);
+			}
+		} finally
+		{
+			in.close();
+		}
+		return instances;
+	}
+
+	/**
+	 * Solves instance and records the result. The heap is collected first so
+	 * the peak only holds what the solve keeps alive.
+	 *
+	 * @param instance
+	 */
+	private void solve(Instance instance)
+	{
+		System.gc();
+		for(MemoryPoolMXBean pool: heap)
+			pool.resetPeakUsage();
+
+		Solver solver = new Solver(options);
+		long start = System.nanoTime();
+		PState solution = solver.solve(instance.root, goalEmpty);
+		instance.millis = (System.nanoTime() - start)/1000000;
+
+		instance.peak = 0;
+		for(MemoryPoolMXBean pool: heap)
+			instance.peak += pool.getPeakUsage().getUsed();
+		instance.expanded = solver.getStatistics().getExpanded();
+		instance.length = (solution == null) ? -1 : solution.getG();
+	}
+
+	/**
+	 * Returns the line of the report for instance.
+	 *
+	 * @param instance
+	 * @return String line
+	 */
+	private static String line(Instance instance)
+	{
+		String optimum = (instance.optimum < 0) ? "" : Integer.toString(instance.optimum);
+		String excess = (instance.optimum < 0) ? "" : Integer.toString(instance.length - instance.optimum);
+		return instance.name + "," + instance.n + "," + optimum + "," + instance.length + "," + excess + ","
+				+ instance.millis + "," + instance.expanded + "," + (instance.peak >> 20);
+	}
+
+	/**
+	 * Reads the report of an earlier run.
+	 *
+	 * @param file
+	 * @return HashMap<String, String[]> the fields of every line by instance name.
+	 * @throws IOException if the file can not be read or is not a report.
+	 */
+	private static HashMap<String, String[]> readReport(String file) throws IOException
+	{
+		HashMap<String, String[]> report = new HashMap<String, String[]>();
+		BufferedReader in = new BufferedReader(new FileReader(file));
+		try
+		{
+			String line = in.readLine();
+			if(line == null || !line.equals(HEADER))
+				throw new IOException(file + ": not a report");
+
+			while((line = in.readLine()) != null)
+			{
+				String fields[] = line.split(",", -1);
+				if(fields.length == HEADER.split(",").length)
+					report.put(fields[0], fields);
+			}
+		} finally
+		{
+			in.close();
+		}
+		return report;
+	}
+
+	/**
+	 * Compares instance with its line in the baseline.
+	 *
+	 * @param instance
+	 * @param base - fields of the baseline line or null if the instance is new.
+	 * @param tolerance - the fraction time and nodes may grow by.
+	 * @return String the regressions found or null if there are none.
+	 */
+	private static String compare(Instance instance, String base[], double tolerance)
+	{
+		if(base == null)
+			return null;
+
+		int length = Integer.parseInt(base[3]);
+		long millis = Long.parseLong(base[5]);
+		long expanded = Long.parseLong(base[6]);
+
+		StringBuilder found = new StringBuilder();
+		if(instance.length > length)
+			found.append(", length " + length + " -> " + instance.length);
+		if(instance.millis > millis*(1 + tolerance) && instance.millis - millis >= MIN_MILLIS)
+			found.append(", time " + millis + " ms -> " + instance.millis + " ms");
+		if(instance.expanded > expanded*(1 + tolerance))
+			found.append(", nodes " + expanded + " -> " + instance.expanded);
+		return (found.length() == 0) ? null : found.substring(2);
+	}
+
+	/**
+	 * Runs the instances of a file and writes the report.
+	 *
+	 * @param args - options followed by the instance file.
+	 */
+	public static void main(String[] args)
+	{
+		int goalEmpty = 0;
+		int warmup = 1;
+		double tolerance = 0.10;
+		SolverOptions options = new SolverOptions();
+		String report = null, baseline = null, file = null;
+
+		try
+		{
+			for(int i = 0; i < args.length; i++)
+			{
+				if(args[i].equals("-empty"))
+					goalEmpty = Integer.parseInt(args[++i]);
+				else if(args[i].equals("-threads"))
+					options.setThreads(Integer.parseInt(args[++i]));
+				else if(args[i].equals("-warmup"))
+					warmup = Integer.parseInt(args[++i]);
+				else if(args[i].equals("-report"))
+					report = args[++i];
+				else if(args[i].equals("-baseline"))
+					baseline = args[++i];
+				else if(args[i].equals("-tolerance"))
+					tolerance = Integer.parseInt(args[++i])/100.0;
+				else if(file == null)
+					file = args[i];
+				else
+					throw new IllegalArgumentException();
+			}
+			if(file == null || goalEmpty < 0 || warmup < 0 || options.getThreads() < 1)
+				throw new IllegalArgumentException();
+		} catch(RuntimeException e)
+		{
+			System.err.println("Usage: java InstanceBenchmark [-empty <goalEmpty>] [-threads <count>] [-warmup <count>]"
+					+ " [-report <file>] [-baseline <report>] [-tolerance <percent>] <instances>");
+			System.exit(1);
+		}
+
+		options.setStatistics(true);
+		InstanceBenchmark benchmark = new InstanceBenchmark(goalEmpty, options);
+		int regressions = 0;
+		try
+		{
+			ArrayList<Instance> instances = benchmark.read(file);
+			HashMap<String, String[]> base = (baseline == null) ? null : readReport(baseline);
+
+			// Loads the pattern databases and compiles the searches before anything is timed.
+			for(int i = 0; i < warmup && i < instances.size(); i++)
+				new Solver(options).solve(instances.get(i).root, goalEmpty);
+
+			PrintWriter out = new PrintWriter((report == null) ? new OutputStreamWriter(System.out) : new FileWriter(report));
+			out.println(HEADER);
+			long millis = 0, expanded = 0;
+			int moves = 0, excess = 0, known = 0;
+			for(Instance instance: instances)
+			{
+				benchmark.solve(instance);
+				out.println(line(instance));
+				out.flush();
+
+				millis += instance.millis;
+				expanded += instance.expanded;
+				moves += instance.length;
+				if(instance.optimum >= 0)
+				{
+					excess += instance.length - instance.optimum;
+					known++;
+				}
+
+				String found = (base == null) ? null : compare(instance, base.get(instance.name), tolerance);
+				if(found != null)
+				{
+					System.err.println("Regression in " + instance.name + ": " + found);
+					regressions++;
+				}
+			}
+			if(report != null)
+				out.close();
+
+			System.err.printf("%d instances in %.2f s, %d nodes expanded, %d moves", instances.size(), millis/1000.0, expanded, moves);
+			if(known > 0)
+				System.err.printf(", %d over the optimum in %d known", excess, known);
+			System.err.println();
+		} catch(IOException e)
+		{
+			System.err.println("Benchmark failed: " + e.getMessage());
+			System.exit(1);
+		}
+
+		if(regressions > 0)
+		{
+			System.err.println(regressions + " regressions against " + baseline);
+			System.exit(2);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event of one threshold iteration of IDAStarSearch.
+ *
+ * @author joshua
+ *
+ */
+@Name("puzzle.Iteration")
+@Label("IDA* Iteration")
+@Category("Sliding Puzzle")
+@Description("One threshold iteration of IDA*")
+@StackTrace(false)
+public class IterationEvent extends Event
+{
+	@Label("Board Size")
+	@Description("Rows and columns of the board")
+	int boardSize;
+
+	@Label("Threshold")
+	@Description("The f cut off of the iteration")
+	int threshold;
+
+	@Label("Free Tiles")
+	@Description("True if the goal leaves tiles free")
+	boolean multi;
+
+	@Label("Nodes Expanded")
+	long expanded;
+
+	@Label("Nodes Generated")
+	long generated;
+}
\ No newline at end of file
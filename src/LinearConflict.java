@@ -0,0 +1,206 @@
+import java.util.HashMap;
+
+/**
+ * Manhattan distance plus linear conflicts. Two tiles in their goal row
+ * (or column) in the wrong order must leave the line for one to pass the
+ * other, which adds two moves to the Manhattan distance. For each line the
+ * fewest tiles that have to leave are the tiles outside the longest run in
+ * goal order, so every line adds 2*(tiles in their goal line - longest run).
+ *
+ * Every line is kept as a key of its tiles' goal offsets and the conflicts
+ * of every key are looked up in a table. A move changes at most two keys.
+ * The table only depends on n so it is built once for each size and shared.
+ * Tiles left FREE by a subgoal are not counted and never conflict.
+ *
+ * @author joshua
+ *
+ */
+public class LinearConflict extends Heuristic
+{
+	private static final HashMap<Integer, byte[]> tables = new HashMap<Integer, byte[]>(); // Conflicts of every key by n.
+
+	private int n;
+	private byte dist[][]; // dist[tile][pos] is the Manhattan distance of tile at pos.
+	private int pow[]; // pow[i] is (n + 1)^i.
+	private byte conflicts[]; // conflicts[key] is the cost of the conflicts in a line with key.
+	private boolean counted[]; // counted[tile] is true if tile is counted.
+
+	private int rowKey[]; // rowKey[row] is the key of row.
+	private int colKey[]; // colKey[col] is the key of col.
+	private int manhattan;
+	private int extra; // Sum of the conflicts of every line.
+
+	/**
+	 * Constructs a copy sharing the tables of other.
+	 *
+	 * @param other
+	 */
+	private LinearConflict(LinearConflict other)
+	{
+		n = other.n;
+		dist = other.dist;
+		pow = other.pow;
+		conflicts = other.conflicts;
+		counted = other.counted;
+		rowKey = new int[n];
+		colKey = new int[n];
+	}
+
+	/**
+	 * Constructs linear conflict for an n by n board.
+	 *
+	 * @param n - the number of rows and columns.
+	 * @param counted - counted[tile] is true if tile is counted or null to count every tile.
+	 */
+	public LinearConflict(int n, boolean counted[])
+	{
+		this.n = n;
+		dist = ManhattanDistance.table(n, counted);
+		this.counted = new boolean[n*n];
+		for(int tile = 0; tile < n*n; tile++)
+			this.counted[tile] = (counted == null || counted[tile]);
+		pow = new int[n + 1];
+		pow[0] = 1;
+		for(int i = 1; i <= n; i++)
+			pow[i] = pow[i - 1]*(n + 1);
+		conflicts = table(n, pow);
+
+		rowKey = new int[n];
+		colKey = new int[n];
+	}
+
+	/**
+	 * Returns the conflicts of every key of a line of n cells. The table is
+	 * built the first time it is needed for n.
+	 *
+	 * @param n - the number of rows and columns.
+	 * @param pow - pow[i] is (n + 1)^i.
+	 * @return byte[] conflicts where conflicts[key] is the cost of the conflicts in a line with key.
+	 */
+	private static synchronized byte[] table(int n, int pow[])
+	{
+		byte conflicts[] = tables.get(n);
+		if(conflicts != null)
+			return conflicts;
+
+		/* A key holds one digit for each cell of a line. The digit is 0 if the
+		 * cell holds the empty square or a tile of another line and 1 plus the
+		 * offset of the tile in the line otherwise. */
+		conflicts = new byte[pow[n]];
+		int run[] = new int[n];
+		for(int key = 0; key < pow[n]; key++)
+		{
+			int tiles = 0, longest = 0;
+			for(int i = 0; i < n; i++)
+			{
+				int digit = (key/pow[i])%(n + 1);
+				if(digit == 0)
+					continue;
+
+				// run[j] is the longest run in goal order ending in the j-th tile.
+				run[tiles] = 1;
+				for(int j = 0, k = 0; k < i; k++)
+				{
+					int other = (key/pow[k])%(n + 1);
+					if(other == 0)
+						continue;
+					if(other < digit && run[j] + 1 > run[tiles])
+						run[tiles] = run[j] + 1;
+					j++;
+				}
+				longest = Math.max(longest, run[tiles]);
+				tiles++;
+			}
+			conflicts[key] = (byte)(2*(tiles - longest));
+		}
+
+		tables.put(n, conflicts);
+		return conflicts;
+	}
+
+	@Override
+	public int reset(byte board[])
+	{
+		manhattan = 0;
+		for(int i = 0; i < n; i++)
+		{
+			rowKey[i] = 0;
+			colKey[i] = 0;
+		}
+
+		for(int pos = 0; pos < board.length; pos++)
+		{
+			int tile = board[pos];
+			if(tile < 0)
+				continue;
+
+			int row = pos/n, col = pos%n;
+			manhattan += dist[tile][pos];
+			rowKey[row] += rowDigit(tile, row)*pow[col];
+			colKey[col] += colDigit(tile, col)*pow[row];
+		}
+
+		extra = 0;
+		for(int i = 0; i < n; i++)
+			extra += conflicts[rowKey[i]] + conflicts[colKey[i]];
+		return manhattan + extra;
+	}
+
+	@Override
+	public int move(int tile, int from, int to)
+	{
+		int fromRow = from/n, fromCol = from%n, toRow = to/n, toCol = to%n;
+		manhattan += dist[tile][to] - dist[tile][from];
+
+		if(fromCol == toCol)
+		{
+			/* Moving up or down changes the tiles in two rows. The order of
+			 * the tiles in the column stays the same. */
+			extra -= conflicts[rowKey[fromRow]] + conflicts[rowKey[toRow]];
+			rowKey[fromRow] -= rowDigit(tile, fromRow)*pow[fromCol];
+			rowKey[toRow] += rowDigit(tile, toRow)*pow[toCol];
+			extra += conflicts[rowKey[fromRow]] + conflicts[rowKey[toRow]];
+			colKey[fromCol] += colDigit(tile, fromCol)*(pow[toRow] - pow[fromRow]);
+		}
+		else
+		{
+			extra -= conflicts[colKey[fromCol]] + conflicts[colKey[toCol]];
+			colKey[fromCol] -= colDigit(tile, fromCol)*pow[fromRow];
+			colKey[toCol] += colDigit(tile, toCol)*pow[toRow];
+			extra += conflicts[colKey[fromCol]] + conflicts[colKey[toCol]];
+			rowKey[fromRow] += rowDigit(tile, fromRow)*(pow[toCol] - pow[fromCol]);
+		}
+
+		return manhattan + extra;
+	}
+
+	@Override
+	public Heuristic copy()
+	{
+		return new LinearConflict(this);
+	}
+
+	/**
+	 * Returns the digit of tile in the key of row.
+	 *
+	 * @param tile
+	 * @param row
+	 * @return int 1 plus the goal column of tile if tile is counted and its goal is in row otherwise 0.
+	 */
+	private int rowDigit(int tile, int row)
+	{
+		return (counted[tile] && tile/n == row) ? tile%n + 1 : 0;
+	}
+
+	/**
+	 * Returns the digit of tile in the key of col.
+	 *
+	 * @param tile
+	 * @param col
+	 * @return int 1 plus the goal row of tile if tile is counted and its goal is in col otherwise 0.
+	 */
+	private int colDigit(int tile, int col)
+	{
+		return (counted[tile] && tile%n == col) ? tile/n + 1 : 0;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,95 @@
+/**
+ * Sum over every tile of the horizontal plus vertical distance to its
+ * true location. A move changes the distance of one tile by one. Tiles
+ * left FREE by a subgoal are not counted.
+ *
+ * @author joshua
+ *
+ */
+public class ManhattanDistance extends Heuristic
+{
+	private byte dist[][]; // dist[tile][pos] is the distance of tile at pos.
+	private byte delta[]; // delta[(tile*cells + from)*cells + to] is the change in distance of tile moving from from to to.
+	private int cells;
+	private int h;
+
+	/**
+	 * Constructs a copy sharing the table of other.
+	 *
+	 * @param other
+	 */
+	private ManhattanDistance(ManhattanDistance other)
+	{
+		dist = other.dist;
+		delta = other.delta;
+		cells = other.cells;
+		h = 0;
+	}
+
+	/**
+	 * Constructs Manhattan distance for an n by n board.
+	 *
+	 * @param n - the number of rows and columns.
+	 * @param counted - counted[tile] is true if tile is counted or null to count every tile.
+	 */
+	public ManhattanDistance(int n, boolean counted[])
+	{
+		dist = table(n, counted);
+		cells = n*n;
+		delta = new byte[cells*cells*cells];
+		for(int tile = 0; tile < cells; tile++)
+		{
+			for(int from = 0; from < cells; from++)
+			{
+				for(int to = 0; to < cells; to++)
+					delta[(tile*cells + from)*cells + to] = (byte)(dist[tile][to] - dist[tile][from]);
+			}
+		}
+		h = 0;
+	}
+
+	@Override
+	public int reset(byte board[])
+	{
+		h = 0;
+		for(int i = 0; i < board.length; i++)
+		{
+			if(board[i] >= 0)
+				h += dist[board[i]][i];
+		}
+		return h;
+	}
+
+	@Override
+	public int move(int tile, int from, int to)
+	{
+		h += delta[(tile*cells + from)*cells + to];
+		return h;
+	}
+
+	@Override
+	public Heuristic copy()
+	{
+		return new ManhattanDistance(this);
+	}
+
+	/**
+	 * Builds the table of distances for every tile at every position. Tiles
+	 * that are not counted are 0 everywhere.
+	 *
+	 * @param n - the number of rows and columns.
+	 * @param counted - counted[tile] is true if tile is counted or null to count every tile.
+	 * @return byte[][] dist where dist[tile][pos] is the distance of tile at pos.
+	 */
+	static byte[][] table(int n, boolean counted[])
+	{
+		int cells = n*n;
+		byte dist[][] = new byte[cells][cells];
+		for(int tile = 0; tile < cells; tile++)
+		{
+			for(int pos = 0; pos < cells && (counted == null || counted[tile]); pos++)
+				dist[tile][pos] = (byte)(Math.abs(tile/n - pos/n) + Math.abs(tile%n - pos%n));
+		}
+		return dist;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,438 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Finite state machine that rejects moves of the empty square leading to a
+ * board some shorter or earlier sequence of moves reaches as well, in the
+ * style of Taylor and Korf. IDA* keeps one state per node and skips the moves
+ * the machine rejects, so no board is hashed.
+ *
+ * The machine is built once by enumerating every sequence of up to
+ * MAX_LENGTH moves on a board large enough to hold them, in order of length
+ * and then of the order IDA* tries the directions. A sequence is a duplicate
+ * if an earlier sequence leaves every tile and the empty square in the same
+ * place while the empty square stays inside the rectangle it visits. Such a
+ * sequence can be replaced on any board on which it can be played, so one
+ * machine serves every board size. The shortest duplicates become the
+ * patterns of an Aho-Corasick automaton over the four directions. The move
+ * undoing the previous move is the duplicate of length 2.
+ *
+ * @author joshua
+ *
+ */
+public class MoveAutomaton
+{
+	public static final int START = 0; // State before any move.
+	public static final int REJECT = -1;
+
+	private static final int MAX_LENGTH = 10;
+	private static final int WIDTH = 2*MAX_LENGTH + 1; // Rows and columns of the board sequences are played on.
+	private static final int CENTER = MAX_LENGTH*WIDTH + MAX_LENGTH; // Where the empty square starts.
+
+	// Directions in the order IDA* tries them. Sequences are ordered by it.
+	private static final byte ORDER[] = {Constants.UP, Constants.DOWN, Constants.LEFT, Constants.RIGHT};
+
+	// Odd constant from the golden ratio used to spread the bits when hashing.
+	private static final long MIX = 0x9E3779B97F4A7C15L;
+
+	private static MoveAutomaton automaton; // Built when first used.
+
+	private final int next[]; // next[state*4 + direction] is the state after direction or REJECT.
+
+	/**
+	 * Constructs the machine from its transition table.
+	 *
+	 * @param next - next[state*4 + direction] is the state after direction or REJECT.
+	 */
+	private MoveAutomaton(int next[])
+	{
+		this.next = next;
+	}
+
+	/**
+	 * Returns the machine, building it the first time.
+	 *
+	 * @return MoveAutomaton automaton
+	 */
+	public static synchronized MoveAutomaton get()
+	{
+		if(automaton == null)
+			automaton = new Builder().build();
+		return automaton;
+	}
+
+	/**
+	 * Returns a machine that only rejects the move undoing the previous move.
+	 * State 1 + direction follows direction.
+	 *
+	 * @return MoveAutomaton inverses
+	 */
+	public static MoveAutomaton inverses()
+	{
+		int next[] = new int[5*4];
+		for(int state = 0; state < 5; state++)
+		{
+			for(int direction = 0; direction < 4; direction++)
+			{
+				boolean undo = (state != START && (direction ^ 1) == state - 1);
+				next[(state << 2) | direction] = undo ? REJECT : 1 + direction;
+			}
+		}
+		return new MoveAutomaton(next);
+	}
+
+	/**
+	 * Returns the table of transitions. Shared, must not be changed.
+	 *
+	 * @return int[] next where next[state*4 + direction] is the state after direction or REJECT.
+	 */
+	public int[] getTable()
+	{
+		return next;
+	}
+
+	/**
+	 * Returns the state after direction.
+	 *
+	 * @param state
+	 * @param direction - the direction from Constants class.
+	 * @return int the next state or REJECT.
+	 */
+	public int next(int state, int direction)
+	{
+		return next[(state << 2) | direction];
+	}
+
+	/**
+	 * Returns the number of states.
+	 *
+	 * @return int size
+	 */
+	public int size()
+	{
+		return next.length >> 2;
+	}
+
+	/**
+	 * Runs moves from START.
+	 *
+	 * @param moves - directions from Constants class.
+	 * @return int the state after moves or REJECT.
+	 */
+	public int run(byte moves[])
+	{
+		int state = START;
+		for(int i = 0; i < moves.length && state != REJECT; i++)
+			state = next(state, moves[i]);
+		return state;
+	}
+
+	/**
+	 * Enumerates the move sequences and builds the machine from the duplicates found.
+	 */
+	private static class Builder
+	{
+		private int board[]; // board[cell] is the tile at cell or -1. Tiles start on the cell of their number.
+		private int empty;
+		private long hash; // Xor of moved(cell, board[cell]) over every cell.
+		private byte moves[];
+
+		// Sequences that are not duplicates by the hash of the board they leave.
+		private HashMap<Long, ArrayList<Sequence>> kept;
+
+		private ArrayList<byte[]> patterns; // The duplicates found.
+
+		// Aho-Corasick automaton of patterns.
+		private ArrayList<int[]> trie; // trie.get(state)[direction] is the child or REJECT.
+		private int fail[];
+		private int delta[]; // delta[state*4 + direction] is the next state, REJECT if a pattern ends.
+
+		/**
+		 * A sequence kept by the enumeration and the rectangle the empty square visits.
+		 */
+		private static class Sequence
+		{
+			private byte moves[];
+			private int top, bottom, left, right;
+		}
+
+		private Builder()
+		{
+			board = new int[WIDTH*WIDTH];
+			moves = new byte[MAX_LENGTH];
+			kept = new HashMap<Long, ArrayList<Sequence>>();
+			patterns = new ArrayList<byte[]>();
+		}
+
+		/**
+		 * Finds the duplicates one length at a time. Sequences holding a shorter
+		 * duplicate are never enumerated.
+		 *
+		 * @return MoveAutomaton the machine.
+		 */
+		private MoveAutomaton build()
+		{
+			compile();
+			for(int length = 0; length <= MAX_LENGTH; length++)
+			{
+				int found = patterns.size();
+				reset();
+				enumerate(0, length, START, CENTER/WIDTH, CENTER/WIDTH, CENTER%WIDTH, CENTER%WIDTH);
+				if(patterns.size() > found)
+					compile();
+			}
+
+			return new MoveAutomaton(delta);
+		}
+
+		/**
+		 * Puts every tile back on its own cell.
+		 */
+		private void reset()
+		{
+			for(int i = 0; i < board.length; i++)
+				board[i] = i;
+			board[CENTER] = -1;
+			empty = CENTER;
+			hash = moved(CENTER, -1);
+		}
+
+		/**
+		 * Plays every sequence of length moves after the first depth moves
+		 * in order and records the duplicates.
+		 *
+		 * @param depth - moves played so far.
+		 * @param length - length of the sequences.
+		 * @param state - state of the automaton after the moves so far.
+		 * @param top - lowest row the empty square visited.
+		 * @param bottom - highest row the empty square visited.
+		 * @param left - lowest column the empty square visited.
+		 * @param right - highest column the empty square visited.
+		 */
+		private void enumerate(int depth, int length, int state, int top, int bottom, int left, int right)
+		{
+			if(depth == length)
+			{
+				record(length, top, bottom, left, right);
+				return;
+			}
+
+			int from = empty;
+			for(byte direction: ORDER)
+			{
+				int to = step(from, direction);
+				int after = delta[(state << 2) | direction];
+				if(after == REJECT)
+					continue;
+
+				slide(from, to);
+				moves[depth] = direction;
+				enumerate(depth + 1, length, after, Math.min(top, to/WIDTH), Math.max(bottom, to/WIDTH),
+						Math.min(left, to%WIDTH), Math.max(right, to%WIDTH));
+				slide(to, from);
+			}
+		}
+
+		/**
+		 * Records the sequence in moves as a pattern if an earlier sequence
+		 * inside its rectangle leaves the same board, otherwise keeps it.
+		 *
+		 * @param length - length of the sequence.
+		 * @param top
+		 * @param bottom
+		 * @param left
+		 * @param right
+		 */
+		private void record(int length, int top, int bottom, int left, int right)
+		{
+			ArrayList<Sequence> same = kept.get(hash);
+			if(same == null)
+			{
+				same = new ArrayList<Sequence>(1);
+				kept.put(hash, same);
+			}
+
+			byte sequence[] = Arrays.copyOf(moves, length);
+			for(Sequence earlier: same)
+			{
+				boolean inside = earlier.top >= top && earlier.bottom <= bottom && earlier.left >= left && earlier.right <= right;
+				if(inside && Arrays.equals(play(earlier.moves), play(sequence)))
+				{
+					patterns.add(sequence);
+					return;
+				}
+			}
+
+			Sequence s = new Sequence();
+			s.moves = sequence;
+			s.top = top;
+			s.bottom = bottom;
+			s.left = left;
+			s.right = right;
+			same.add(s);
+		}
+
+		/**
+		 * Returns the board left by playing moves from a fresh board.
+		 *
+		 * @param moves - directions from Constants class.
+		 * @return int[] board with -1 on the empty square.
+		 */
+		private static int[] play(byte moves[])
+		{
+			int b[] = new int[WIDTH*WIDTH];
+			for(int i = 0; i < b.length; i++)
+				b[i] = i;
+			int e = CENTER;
+			for(byte direction: moves)
+			{
+				int to = step(e, direction);
+				b[e] = b[to];
+				e = to;
+			}
+			b[e] = -1;
+			return b;
+		}
+
+		/**
+		 * Slides the tile at to into the empty square at from.
+		 *
+		 * @param from - the empty square.
+		 * @param to - the new empty square.
+		 */
+		private void slide(int from, int to)
+		{
+			int tile = board[to];
+			hash ^= moved(from, -1) ^ moved(to, tile);
+			board[from] = tile;
+			board[to] = -1;
+			hash ^= moved(from, tile) ^ moved(to, -1);
+			empty = to;
+		}
+
+		/**
+		 * Returns the hash of tile on cell or 0 if it is the tile's own cell.
+		 *
+		 * @param cell
+		 * @param tile - the tile or -1 for the empty square.
+		 * @return long hash
+		 */
+		private static long moved(int cell, int tile)
+		{
+			return (tile == cell) ? 0 : hash(cell, tile);
+		}
+
+		/**
+		 * Mixes cell and tile into 64 bits.
+		 *
+		 * @param cell
+		 * @param tile
+		 * @return long hash
+		 */
+		private static long hash(int cell, int tile)
+		{
+			long x = ((long)cell << 32 | (tile & 0xFFFFFFFFL))*MIX;
+			x ^= x >>> 31;
+			x *= MIX;
+			return x ^ (x >>> 29);
+		}
+
+		/**
+		 * Returns the cell reached by moving the empty square from cell in direction.
+		 *
+		 * @param cell
+		 * @param direction - the direction from Constants class.
+		 * @return int cell
+		 */
+		private static int step(int cell, int direction)
+		{
+			switch(direction)
+			{
+			case Constants.LEFT:
+				return cell - 1;
+			case Constants.RIGHT:
+				return cell + 1;
+			case Constants.UP:
+				return cell - WIDTH;
+			default:
+				return cell + WIDTH;
+			}
+		}
+
+		/**
+		 * Builds the Aho-Corasick automaton of patterns.
+		 */
+		private void compile()
+		{
+			trie = new ArrayList<int[]>();
+			trie.add(newNode());
+			ArrayList<Boolean> ends = new ArrayList<Boolean>();
+			ends.add(false);
+
+			for(byte pattern[]: patterns)
+			{
+				int state = START;
+				for(byte direction: pattern)
+				{
+					if(trie.get(state)[direction] == REJECT)
+					{
+						trie.get(state)[direction] = trie.size();
+						trie.add(newNode());
+						ends.add(false);
+					}
+					state = trie.get(state)[direction];
+				}
+				ends.set(state, true);
+			}
+
+			// Breadth first so the fail state of every state is done before its children.
+			int states = trie.size();
+			fail = new int[states];
+			delta = new int[states*4];
+			boolean rejects[] = new boolean[states];
+			int queue[] = new int[states];
+			int head = 0, tail = 0;
+			queue[tail++] = START;
+			while(head < tail)
+			{
+				int state = queue[head++];
+				rejects[state] = ends.get(state) || (state != START && rejects[fail[state]]);
+				for(int direction = 0; direction < 4; direction++)
+				{
+					int child = trie.get(state)[direction];
+					int fallback = (state == START) ? START : delta[(fail[state] << 2) | direction];
+					if(child != REJECT)
+					{
+						fail[child] = (state == START) ? START : fallback;
+						delta[(state << 2) | direction] = child;
+						queue[tail++] = child;
+					}
+					else
+					{
+						delta[(state << 2) | direction] = fallback;
+					}
+				}
+			}
+
+			// A state where a pattern ends is never entered.
+			for(int i = 0; i < delta.length; i++)
+			{
+				if(delta[i] != REJECT && rejects[delta[i]])
+					delta[i] = REJECT;
+			}
+		}
+
+		/**
+		 * Returns a trie node without children.
+		 *
+		 * @return int[] node
+		 */
+		private static int[] newNode()
+		{
+			int node[] = new int[4];
+			Arrays.fill(node, REJECT);
+			return node;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,271 @@
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Sequence of moves of the empty square packed 2 bits to a move, 32 moves
+ * to a long. The directions in Constants all fit in 2 bits. Serializes only
+ * the longs in use.
+ *
+ * @author joshua
+ *
+ */
+public class MoveSequence implements Iterable<Byte>, Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	private static final int BITS = 2;
+	private static final int PER_WORD = 64/BITS; // Moves held by each long.
+	private static final long MASK = (1 << BITS) - 1;
+	private static final char NAMES[] = {'L', 'R', 'U', 'D'}; // Letter of each direction for toString().
+
+	private transient long words[];
+	private transient int size;
+
+	/**
+	 * Constructs an empty sequence.
+	 */
+	public MoveSequence()
+	{
+		this(PER_WORD);
+	}
+
+	/**
+	 * Constructs an empty sequence with room for capacity moves.
+	 *
+	 * @param capacity - the number of moves to make room for.
+	 */
+	public MoveSequence(int capacity)
+	{
+		words = new long[Math.max(1, (capacity + PER_WORD - 1)/PER_WORD)];
+		size = 0;
+	}
+
+	/**
+	 * Constructs a sequence holding moves.
+	 *
+	 * @param moves - directions from Constants class.
+	 */
+	public MoveSequence(byte moves[])
+	{
+		this(moves.length);
+		for(byte move: moves)
+			append(move);
+	}
+
+	/**
+	 * Adds move to the end.
+	 *
+	 * @param move - a direction from Constants class.
+	 */
+	public void append(byte move)
+	{
+		if(move < 0 || move > MASK)
+			throw new IllegalArgumentException("Not a move: " + move);
+
+		int word = size/PER_WORD;
+		if(word == words.length)
+			words = Arrays.copyOf(words, words.length << 1);
+
+		int shift = (size%PER_WORD)*BITS;
+		words[word] = (words[word] & ~(MASK << shift)) | ((long)move << shift);
+		size++;
+	}
+
+	/**
+	 * Returns the move at index.
+	 *
+	 * @param index
+	 * @return byte the direction.
+	 */
+	public byte get(int index)
+	{
+		if(index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index " + index + " of " + size + " moves");
+
+		return (byte)((words[index/PER_WORD] >>> ((index%PER_WORD)*BITS)) & MASK);
+	}
+
+	/**
+	 * Returns the number of moves.
+	 *
+	 * @return int size
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Returns true if there are no moves.
+	 *
+	 * @return boolean isEmpty
+	 */
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	/**
+	 * Reverses the order of the moves in place.
+	 */
+	public void reverse()
+	{
+		for(int i = 0, j = size - 1; i < j; i++, j--)
+		{
+			byte move = get(i);
+			set(i, get(j));
+			set(j, move);
+		}
+	}
+
+	/**
+	 * Returns the moves undoing this sequence. The moves are reversed and
+	 * every move is replaced by the opposite direction.
+	 *
+	 * @return MoveSequence inverse
+	 */
+	public MoveSequence inverse()
+	{
+		MoveSequence inverse = new MoveSequence(size);
+		for(int i = size - 1; i >= 0; i--)
+			inverse.append((byte)(get(i) ^ 1));
+		return inverse;
+	}
+
+	/**
+	 * Returns the moves as an array.
+	 *
+	 * @return byte[] the directions.
+	 */
+	public byte[] toArray()
+	{
+		byte moves[] = new byte[size];
+		for(int i = 0; i < size; i++)
+			moves[i] = get(i);
+		return moves;
+	}
+
+	/**
+	 * Replaces the move at index.
+	 *
+	 * @param index
+	 * @param move - a direction from Constants class.
+	 */
+	private void set(int index, byte move)
+	{
+		int word = index/PER_WORD;
+		int shift = (index%PER_WORD)*BITS;
+		words[word] = (words[word] & ~(MASK << shift)) | ((long)move << shift);
+	}
+
+	@Override
+	public Iterator<Byte> iterator()
+	{
+		return new Iterator<Byte>()
+		{
+			private int next = 0;
+
+			@Override
+			public boolean hasNext()
+			{
+				return next < size;
+			}
+
+			@Override
+			public Byte next()
+			{
+				if(next >= size)
+					throw new NoSuchElementException();
+				return get(next++);
+			}
+		};
+	}
+
+	@Override
+	public int hashCode()
+	{
+		int hash = size;
+		for(int i = 0; i < (size + PER_WORD - 1)/PER_WORD; i++)
+			hash = 31*hash + Long.hashCode(words[i]);
+		return hash;
+	}
+
+	/**
+	 * Two sequences are equal if they hold the same moves.
+	 *
+	 * @return isEqual - true if they are the same false otherwise.
+	 */
+	@Override
+	public boolean equals(Object obj)
+	{
+		if(!(obj instanceof MoveSequence))
+			return false;
+
+		MoveSequence other = (MoveSequence)obj;
+		if(size != other.size)
+			return false;
+
+		for(int i = 0; i < (size + PER_WORD - 1)/PER_WORD; i++)
+		{
+			if(words[i] != other.words[i])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the moves as letters L, R, U and D.
+	 *
+	 * @return String moves
+	 */
+	@Override
+	public String toString()
+	{
+		StringBuilder moves = new StringBuilder(size);
+		for(int i = 0; i < size; i++)
+			moves.append(NAMES[get(i)]);
+		return moves.toString();
+	}
+
+	/**
+	 * Writes the size and the longs in use.
+	 *
+	 * @param out
+	 * @throws IOException
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException
+	{
+		out.defaultWriteObject();
+		out.writeInt(size);
+		for(int i = 0; i < (size + PER_WORD - 1)/PER_WORD; i++)
+			out.writeLong(words[i]);
+	}
+
+	/**
+	 * Reads a sequence written by writeObject().
+	 *
+	 * @param in
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+	{
+		in.defaultReadObject();
+		size = in.readInt();
+		if(size < 0)
+			throw new IOException("Bad move sequence size " + size);
+
+		words = new long[Math.max(1, (size + PER_WORD - 1)/PER_WORD)];
+		for(int i = 0; i < (size + PER_WORD - 1)/PER_WORD; i++)
+			words[i] = in.readLong();
+
+		// Clear the bits past the last move so equals() can compare whole longs.
+		if(size%PER_WORD != 0)
+			words[size/PER_WORD] &= (1L << ((size%PER_WORD)*BITS)) - 1;
+	}
+}
\ No newline at end of file
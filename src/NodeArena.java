@@ -0,0 +1,491 @@
+import java.util.Arrays;
+
+/**
+ * Search nodes stored as parallel primitive arrays instead of PState objects.
+ * A node is an int index holding its packed board, g, h, the position of the
+ * empty square, the move taken to reach it and the index of its parent. The
+ * arrays grow in chunks so nothing is copied when the arena grows and the
+ * garbage collector only sees a few large arrays.
+ *
+ * A board is packed into longs with enough bits per cell for the largest
+ * tile. The empty square holds the value of the tile missing from the board
+ * (as in PackedGrid) so boards compare on their longs alone. An index with
+ * linear probing finds the node of a board.
+ *
+ * The index grows incrementally. When it is half full an index of twice the
+ * size is allocated and the old index is copied over a few slots on every
+ * add so there is never a full rehash pause.
+ *
+ * @author joshua
+ *
+ */
+public class NodeArena
+{
+	private static final int CHUNK_BITS = 13;
+	private static final int CHUNK = 1 << CHUNK_BITS; // Nodes per chunk.
+	private static final int CHUNK_MASK = CHUNK - 1;
+	private static final int INITIAL_CHUNKS = 16;
+	private static final int INITIAL_INDEX = 1 << 12;
+	private static final int MIGRATE_STEP = 8; // Slots copied from the old index per add.
+
+	// Odd constant from the golden ratio used to spread the bits when hashing.
+	private static final long MIX = 0x9E3779B97F4A7C15L;
+
+	private final int cells;
+	private final int bits; // Bits per cell.
+	private final int perWord; // Cells per long.
+	private final int words; // Longs per board.
+	private final long fieldMask;
+
+	// Node i is at offset i & CHUNK_MASK of chunk i >>> CHUNK_BITS.
+	private long keys[][]; // Packed boards, words longs per node.
+	private short g[][];
+	private short h[][];
+	private byte empty[][];
+	private byte move[][];
+	private int parent[][];
+	private boolean closed[][];
+	private int size;
+
+	private int index[]; // index[slot] is a node + 1 or 0 if the slot is free.
+	private int indexCount; // Nodes in index.
+
+	private int oldIndex[]; // Index being copied into index. Null when not growing.
+	private int migrated; // Next slot of oldIndex to copy.
+
+	/**
+	 * Constructs an empty arena for boards with cells positions.
+	 *
+	 * @param cells - the number of positions on the board.
+	 */
+	public NodeArena(int cells)
+	{
+		this.cells = cells;
+		bits = Math.max(1, 32 - Integer.numberOfLeadingZeros(cells - 1));
+		perWord = 64/bits;
+		words = (cells + perWord - 1)/perWord;
+		fieldMask = (1L << bits) - 1;
+
+		keys = new long[INITIAL_CHUNKS][];
+		g = new short[INITIAL_CHUNKS][];
+		h = new short[INITIAL_CHUNKS][];
+		empty = new byte[INITIAL_CHUNKS][];
+		move = new byte[INITIAL_CHUNKS][];
+		parent = new int[INITIAL_CHUNKS][];
+		closed = new boolean[INITIAL_CHUNKS][];
+		size = 0;
+
+		index = new int[INITIAL_INDEX];
+		indexCount = 0;
+		oldIndex = null;
+	}
+
+	/**
+	 * Returns the number of nodes.
+	 *
+	 * @return int size
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Packs the board of state.
+	 *
+	 * @param state - a state without FREE tiles.
+	 * @return long[] key
+	 */
+	public long[] encode(PState state)
+	{
+		return encode(state.toGrid(), state.getEmpty());
+	}
+
+	/**
+	 * Packs board.
+	 *
+	 * @param board - array representing the state of the board without FREE tiles.
+	 * @param emptyPos - position of the empty square.
+	 * @return long[] key
+	 */
+	public long[] encode(byte board[], int emptyPos)
+	{
+		long key[] = new long[words];
+		int missing = cells*(cells - 1)/2;
+		for(int pos = 0; pos < cells; pos++)
+		{
+			int tile = board[pos];
+			if(tile >= 0)
+			{
+				missing -= tile;
+				set(key, 0, pos, tile);
+			}
+		}
+		set(key, 0, emptyPos, missing);
+		return key;
+	}
+
+	/**
+	 * Unpacks the board of node.
+	 *
+	 * @param node
+	 * @param board - receives the board with EMPTY at the empty square.
+	 */
+	public void decode(int node, byte board[])
+	{
+		long chunk[] = keys[node >>> CHUNK_BITS];
+		int base = (node & CHUNK_MASK)*words;
+		for(int pos = 0; pos < cells; pos++)
+			board[pos] = (byte)get(chunk, base, pos);
+		board[getEmpty(node)] = PState.EMPTY;
+	}
+
+	/**
+	 * Finds the node holding the board key.
+	 *
+	 * @param key - a packed board.
+	 * @return the node or ~slot of the free slot where it belongs.
+	 */
+	public int find(long key[])
+	{
+		int h = hash(key, 0);
+		int slot = probe(index, h, key);
+		if(slot < 0 && oldIndex != null)
+		{
+			// Nodes not copied yet are only in the old index.
+			int oldSlot = probe(oldIndex, h, key);
+			if(oldSlot >= 0)
+				return oldIndex[oldSlot] - 1;
+		}
+		return (slot < 0) ? slot : index[slot] - 1;
+	}
+
+	/**
+	 * Adds a node and indexes its board.
+	 *
+	 * @param slot - ~slot returned by find(key).
+	 * @param key - the packed board.
+	 * @param emptyPos - position of the empty square.
+	 * @param cost - g of the node.
+	 * @param estimate - h of the node.
+	 * @param from - the parent node or -1.
+	 * @param direction - the move taken from the parent.
+	 * @return int the new node.
+	 */
+	public int add(int slot, long key[], int emptyPos, int cost, int estimate, int from, byte direction)
+	{
+		int node = size++;
+		int chunk = node >>> CHUNK_BITS;
+		int off = node & CHUNK_MASK;
+		if(chunk == keys.length)
+			growChunks();
+		if(keys[chunk] == null)
+			allocate(chunk);
+
+		System.arraycopy(key, 0, keys[chunk], off*words, words);
+		g[chunk][off] = (short)cost;
+		h[chunk][off] = (short)estimate;
+		empty[chunk][off] = (byte)emptyPos;
+		move[chunk][off] = direction;
+		parent[chunk][off] = from;
+
+		// The slot is filled before migrating so copied nodes can not take it.
+		index[slot] = node + 1;
+		indexCount++;
+		if(oldIndex != null)
+			migrate();
+		if(indexCount > (index.length >> 1))
+			growIndex();
+
+		return node;
+	}
+
+	/**
+	 * Gives node a cheaper path through from.
+	 *
+	 * @param node
+	 * @param cost - the new g.
+	 * @param from - the new parent.
+	 * @param direction - the move taken from the new parent.
+	 */
+	public void relink(int node, int cost, int from, byte direction)
+	{
+		int chunk = node >>> CHUNK_BITS;
+		int off = node & CHUNK_MASK;
+		g[chunk][off] = (short)cost;
+		parent[chunk][off] = from;
+		move[chunk][off] = direction;
+	}
+
+	/**
+	 * Writes the board of node after the tile at newPos slides into the
+	 * empty square.
+	 *
+	 * @param node
+	 * @param newPos - the new position of the empty square.
+	 * @param key - receives the packed board.
+	 */
+	public void slide(int node, int newPos, long key[])
+	{
+		int chunk = node >>> CHUNK_BITS;
+		int off = node & CHUNK_MASK;
+		System.arraycopy(keys[chunk], off*words, key, 0, words);
+
+		int from = empty[chunk][off];
+		int tile = get(key, 0, newPos);
+		set(key, 0, newPos, get(key, 0, from));
+		set(key, 0, from, tile);
+	}
+
+	/**
+	 * Returns the tile at pos of node or PState.EMPTY.
+	 *
+	 * @param node
+	 * @param pos - position on the board.
+	 * @return int tile
+	 */
+	public int tileAt(int node, int pos)
+	{
+		int chunk = node >>> CHUNK_BITS;
+		int off = node & CHUNK_MASK;
+		if(pos == empty[chunk][off])
+			return PState.EMPTY;
+		return get(keys[chunk], off*words, pos);
+	}
+
+	/**
+	 * Checks if node holds the board key.
+	 *
+	 * @param node
+	 * @param key - a packed board.
+	 * @return true if the boards are the same.
+	 */
+	public boolean matches(int node, long key[])
+	{
+		long chunk[] = keys[node >>> CHUNK_BITS];
+		int base = (node & CHUNK_MASK)*words;
+		for(int w = 0; w < words; w++)
+		{
+			if(chunk[base + w] != key[w])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns g of node.
+	 *
+	 * @param node
+	 * @return int g
+	 */
+	public int getG(int node)
+	{
+		return g[node >>> CHUNK_BITS][node & CHUNK_MASK];
+	}
+
+	/**
+	 * Returns h of node.
+	 *
+	 * @param node
+	 * @return int h
+	 */
+	public int getH(int node)
+	{
+		return h[node >>> CHUNK_BITS][node & CHUNK_MASK];
+	}
+
+	/**
+	 * Returns the position of the empty square of node.
+	 *
+	 * @param node
+	 * @return int empty
+	 */
+	public int getEmpty(int node)
+	{
+		return empty[node >>> CHUNK_BITS][node & CHUNK_MASK];
+	}
+
+	/**
+	 * Returns the parent of node.
+	 *
+	 * @param node
+	 * @return int parent or -1 for the first node.
+	 */
+	public int getParent(int node)
+	{
+		return parent[node >>> CHUNK_BITS][node & CHUNK_MASK];
+	}
+
+	/**
+	 * Returns true if node has been expanded.
+	 *
+	 * @param node
+	 * @return boolean isClosed
+	 */
+	public boolean isClosed(int node)
+	{
+		return closed[node >>> CHUNK_BITS][node & CHUNK_MASK];
+	}
+
+	/**
+	 * Marks node as expanded.
+	 *
+	 * @param node
+	 */
+	public void close(int node)
+	{
+		closed[node >>> CHUNK_BITS][node & CHUNK_MASK] = true;
+	}
+
+	/**
+	 * Constructs the path to node by walking the parent indices.
+	 *
+	 * @param node
+	 * @return MoveSequence moves from the first node to node.
+	 */
+	public MoveSequence constructPath(int node)
+	{
+		MoveSequence path = new MoveSequence(getG(node));
+		for(int curr = node; getParent(curr) >= 0; curr = getParent(curr))
+			path.append(move[curr >>> CHUNK_BITS][curr & CHUNK_MASK]);
+		path.reverse();
+		return path;
+	}
+
+	/**
+	 * Reads the cell at pos of the board starting at base.
+	 *
+	 * @param k - the longs holding the board.
+	 * @param base - index of the first long of the board.
+	 * @param pos
+	 * @return int the value of the cell.
+	 */
+	private int get(long k[], int base, int pos)
+	{
+		return (int)((k[base + pos/perWord] >>> ((pos%perWord)*bits)) & fieldMask);
+	}
+
+	/**
+	 * Writes the cell at pos of the board starting at base.
+	 *
+	 * @param k - the longs holding the board.
+	 * @param base - index of the first long of the board.
+	 * @param pos
+	 * @param value
+	 */
+	private void set(long k[], int base, int pos, int value)
+	{
+		int w = base + pos/perWord;
+		int shift = (pos%perWord)*bits;
+		k[w] = (k[w] & ~(fieldMask << shift)) | ((long)value << shift);
+	}
+
+	/**
+	 * Hashes the board starting at base. A board of one long hashes the same
+	 * as PackedGrid.hash().
+	 *
+	 * @param k - the longs holding the board.
+	 * @param base - index of the first long of the board.
+	 * @return int hash
+	 */
+	private int hash(long k[], int base)
+	{
+		long x = 0;
+		for(int w = 0; w < words; w++)
+			x = (x ^ k[base + w])*MIX;
+		return (int)(x >>> 32);
+	}
+
+	/**
+	 * Allocates the arrays of chunk.
+	 *
+	 * @param chunk
+	 */
+	private void allocate(int chunk)
+	{
+		keys[chunk] = new long[CHUNK*words];
+		g[chunk] = new short[CHUNK];
+		h[chunk] = new short[CHUNK];
+		empty[chunk] = new byte[CHUNK];
+		move[chunk] = new byte[CHUNK];
+		parent[chunk] = new int[CHUNK];
+		closed[chunk] = new boolean[CHUNK];
+	}
+
+	/**
+	 * Doubles the number of chunks that can be held. Existing chunks are not copied.
+	 */
+	private void growChunks()
+	{
+		int length = keys.length << 1;
+		keys = Arrays.copyOf(keys, length);
+		g = Arrays.copyOf(g, length);
+		h = Arrays.copyOf(h, length);
+		empty = Arrays.copyOf(empty, length);
+		move = Arrays.copyOf(move, length);
+		parent = Arrays.copyOf(parent, length);
+		closed = Arrays.copyOf(closed, length);
+	}
+
+	/**
+	 * Finds the board key in t using linear probing.
+	 *
+	 * @param t - the index to search.
+	 * @param h - hash of key.
+	 * @param key - a packed board.
+	 * @return the slot holding key or ~slot of the free slot where it belongs.
+	 */
+	private int probe(int t[], int h, long key[])
+	{
+		int mask = t.length - 1;
+		int slot = h & mask;
+		while(t[slot] != 0)
+		{
+			if(matches(t[slot] - 1, key))
+				return slot;
+			slot = (slot + 1) & mask;
+		}
+		return ~slot;
+	}
+
+	/**
+	 * Starts growing into an index twice the size. If the previous grow is
+	 * still in progress it is finished first.
+	 */
+	private void growIndex()
+	{
+		while(oldIndex != null)
+			migrate();
+
+		oldIndex = index;
+		migrated = 0;
+		index = new int[oldIndex.length << 1];
+		indexCount = 0;
+	}
+
+	/**
+	 * Copies the next MIGRATE_STEP slots of oldIndex into index. The old
+	 * index is left intact so its probe chains stay valid until it is dropped.
+	 */
+	private void migrate()
+	{
+		int mask = index.length - 1;
+		int end = Math.min(migrated + MIGRATE_STEP, oldIndex.length);
+		for(; migrated < end; migrated++)
+		{
+			int entry = oldIndex[migrated];
+			if(entry == 0)
+				continue;
+
+			int node = entry - 1;
+			int slot = hash(keys[node >>> CHUNK_BITS], (node & CHUNK_MASK)*words) & mask;
+			while(index[slot] != 0)
+				slot = (slot + 1) & mask;
+			index[slot] = entry;
+			indexCount++;
+		}
+
+		if(migrated == oldIndex.length)
+			oldIndex = null;
+	}
+}
\ No newline at end of file
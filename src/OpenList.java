@@ -0,0 +1,307 @@
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Open list for A* search. States are kept in a BucketQueue by
+ * f(n) = g(n) + weight*h(n) and g(n), so add and poll take constant time
+ * instead of the log time of a heap. Ties on f are broken in favour of the
+ * largest g and then the last state added. The queue holds the slot of each
+ * state in an array and slots are reused once polled.
+ *
+ * An index remembers the lowest g added for every state. A state is only
+ * added again if it was reached with a lower g and the old entry is
+ * skipped when it comes up in poll().
+ *
+ * The index grows incrementally. When it is half full an index of twice the
+ * size is allocated and the old index is copied over a few slots on every
+ * add so there is never a full rehash pause.
+ *
+ * @author joshua
+ *
+ */
+public class OpenList
+{
+	private static final int INITIAL_SLOTS = 64;
+	private static final int INITIAL_INDEX = 1 << 12;
+	private static final int MIGRATE_STEP = 8; // Slots copied from the old index per add.
+	private static final long FREE_SLOT = 0; // Marks an unused slot. No packed state is 0.
+
+	private int weight; // Weight given to h(n).
+
+	private BucketQueue queue; // Slots of the states.
+	private PState slots[]; // slots[i] is the state queued in slot i or null.
+	private int free[]; // Slots polled and free to reuse.
+	private int freeCount;
+	private int used; // Slots ever used.
+
+	// Lowest g added for each packed state.
+	private long keys[];
+	private short costs[];
+	private int keyCount; // Keys in keys.
+
+	// Index being copied into keys and costs. Null when not growing.
+	private long oldKeys[];
+	private short oldCosts[];
+	private int migrated; // Next slot of oldKeys to copy.
+
+	private HashMap<PState, Short> unpacked; // Lowest g added for states that can not be packed.
+
+	/**
+	 * Constructs an empty OpenList.
+	 *
+	 * @param weight - weight of h(n) in f(n). Use 1 for an admissible search.
+	 */
+	public OpenList(int weight)
+	{
+		this.weight = weight;
+		queue = new BucketQueue();
+		slots = new PState[INITIAL_SLOTS];
+		free = new int[INITIAL_SLOTS];
+		freeCount = 0;
+		used = 0;
+		keys = new long[INITIAL_INDEX];
+		costs = new short[INITIAL_INDEX];
+		keyCount = 0;
+		oldKeys = null;
+		oldCosts = null;
+		unpacked = null;
+	}
+
+	/**
+	 * Returns true if there are no entries left.
+	 *
+	 * @return boolean isEmpty
+	 */
+	public boolean isEmpty()
+	{
+		return queue.isEmpty();
+	}
+
+	/**
+	 * Returns the number of states ever added, each counted once.
+	 *
+	 * @return int states
+	 */
+	public int seen()
+	{
+		int seen = keyCount + ((unpacked == null) ? 0 : unpacked.size());
+		if(oldKeys != null)
+			seen += countOld();
+		return seen;
+	}
+
+	/**
+	 * Returns the number of entries including stale ones.
+	 *
+	 * @return int size
+	 */
+	public int size()
+	{
+		return queue.size();
+	}
+
+	/**
+	 * Adds state unless it was already added with an equal or lower g.
+	 *
+	 * @param state
+	 * @return true if state was added.
+	 */
+	public boolean add(PState state)
+	{
+		if(!improve(state))
+			return false;
+
+		int slot;
+		if(freeCount > 0)
+		{
+			slot = free[--freeCount];
+		}
+		else
+		{
+			if(used == slots.length)
+			{
+				slots = Arrays.copyOf(slots, used << 1);
+				free = Arrays.copyOf(free, used << 1);
+			}
+			slot = used++;
+		}
+
+		slots[slot] = state;
+		int g = state.getG();
+		queue.add(slot, g, g + weight*state.getH());
+		return true;
+	}
+
+	/**
+	 * Removes and returns the state with the lowest f. Ties go to the
+	 * highest g and then to the last state added.
+	 *
+	 * @return the next state or null if the list is empty.
+	 */
+	public PState poll()
+	{
+		int slot;
+		while((slot = queue.poll()) >= 0)
+		{
+			PState state = slots[slot];
+			slots[slot] = null;
+			free[freeCount++] = slot;
+
+			// Skip entries that were replaced by a cheaper path.
+			if(bestG(state) == queue.getPolledG())
+				return state;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Records g of state in the index if it is lower than the recorded g.
+	 *
+	 * @param state
+	 * @return true if g is lower than the recorded g or there is none.
+	 */
+	private boolean improve(PState state)
+	{
+		short g = (short)state.getG();
+		if(!state.isPacked())
+		{
+			if(unpacked == null)
+				unpacked = new HashMap<PState, Short>();
+
+			Short old = unpacked.get(state);
+			if(old != null && old <= g)
+				return false;
+			unpacked.put(state, g);
+			return true;
+		}
+
+		long key = state.getPacked();
+		int slot = find(keys, key);
+		if(slot >= 0)
+		{
+			if(costs[slot] <= g)
+				return false;
+			costs[slot] = g;
+			return true;
+		}
+
+		// Keys not copied yet are only in the old index.
+		int oldSlot = (oldKeys == null) ? -1 : find(oldKeys, key);
+		if(oldSlot >= 0)
+		{
+			if(oldCosts[oldSlot] <= g)
+				return false;
+			oldCosts[oldSlot] = g;
+			return true;
+		}
+
+		// The slot is filled before migrating so copied keys can not take it.
+		keys[~slot] = key;
+		costs[~slot] = g;
+		keyCount++;
+		if(oldKeys != null)
+			migrate();
+		if(keyCount > (keys.length >> 1))
+			growIndex();
+		return true;
+	}
+
+	/**
+	 * Returns the lowest g recorded for state.
+	 *
+	 * @param state
+	 * @return int bestG
+	 */
+	private int bestG(PState state)
+	{
+		if(!state.isPacked())
+			return unpacked.get(state);
+
+		long key = state.getPacked();
+		int slot = find(keys, key);
+		if(slot >= 0)
+			return costs[slot];
+		return oldCosts[find(oldKeys, key)];
+	}
+
+	/**
+	 * Finds key in t using linear probing.
+	 *
+	 * @param t - the index to search.
+	 * @param key
+	 * @return the slot holding key or ~slot of the free slot where it belongs.
+	 */
+	private static int find(long t[], long key)
+	{
+		int mask = t.length - 1;
+		int slot = PackedGrid.hash(key) & mask;
+		while(t[slot] != FREE_SLOT)
+		{
+			if(t[slot] == key)
+				return slot;
+			slot = (slot + 1) & mask;
+		}
+		return ~slot;
+	}
+
+	/**
+	 * Starts growing into an index twice the size. If the previous grow is
+	 * still in progress it is finished first.
+	 */
+	private void growIndex()
+	{
+		while(oldKeys != null)
+			migrate();
+
+		oldKeys = keys;
+		oldCosts = costs;
+		migrated = 0;
+		keys = new long[oldKeys.length << 1];
+		costs = new short[oldKeys.length << 1];
+		keyCount = 0;
+	}
+
+	/**
+	 * Copies the next MIGRATE_STEP slots of the old index into keys and
+	 * costs. The old index is left intact so its probe chains stay valid
+	 * until it is dropped.
+	 */
+	private void migrate()
+	{
+		int end = Math.min(migrated + MIGRATE_STEP, oldKeys.length);
+		for(; migrated < end; migrated++)
+		{
+			long key = oldKeys[migrated];
+			if(key != FREE_SLOT)
+			{
+				int slot = ~find(keys, key);
+				keys[slot] = key;
+				costs[slot] = oldCosts[migrated];
+				keyCount++;
+			}
+		}
+
+		if(migrated == oldKeys.length)
+		{
+			oldKeys = null;
+			oldCosts = null;
+		}
+	}
+
+	/**
+	 * Counts the keys of the old index that have not been copied yet.
+	 *
+	 * @return int the number of keys left in the old index.
+	 */
+	private int countOld()
+	{
+		int left = 0;
+		for(int i = migrated; i < oldKeys.length; i++)
+		{
+			if(oldKeys[i] != FREE_SLOT)
+				left++;
+		}
+		return left;
+	}
+}
\ No newline at end of file
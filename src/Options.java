@@ -1,5 +1,7 @@
 /**
  * Class for option variables. These variables will change parts of the Slider Puzzle.
+ * The search settings are the defaults of a new SolverOptions and are only
+ * read when a Solver is constructed.
  * 
  * @author joshua
  *
@@ -8,4 +10,12 @@ public class Options
 {
 	public static int GRID_ROOT = 3; 
 	public static double ARATE = 0.05;
+	public static int HEURISTIC = Heuristic.MANHATTAN; // Heuristic used by IDA* without a pattern database.
+	public static boolean COUNT_FREE_TILES = true; // Count tiles a subgoal leaves FREE in the heuristic of weighted IDA*.
+	public static int THREADS = Runtime.getRuntime().availableProcessors(); // Threads searching the subtrees of each IDA* iteration. Above 1 the A* searches run as hash distributed A* (HDA*) on this many threads.
+	public static int TRANSPOSITION_MB = 0; // Memory of the table IDA* cuts off repeated boards with. 0 turns it off.
+	public static boolean CONTROLLED_REEXPANSION = true; // Pick the thresholds of weighted IDA* to double the work per iteration (IDA*_CR).
+	public static boolean FRINGE_SEARCH = false; // Search the subgoals of boards over 3x3 with Fringe search instead of IDA*. Keeps every board seen in memory.
+	public static boolean STATISTICS = true; // Collect the counts of every solve (see SolveStatistics).
+	public static String PDB_DIR = "pdb"; // Directory holding pattern database files.
 }
\ No newline at end of file
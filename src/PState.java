@@ -1,300 +1,386 @@
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.LinkedList;
-
-/**
- * Represents the state of the n-puzzle. Primarily as
- * the position of tiles on the grid.
- * 
- * @author joshua
- *
- */
-public class PState
-{
-	// Variables for multi goal representation.
-	public static final byte EMPTY = -1; 
-	public static final byte FREE = -2;
-	
-	private byte move; // Represents the move taken to get to this state.
-	
-	private byte grid[]; // The state representation of the grid.
-	private byte empty; // Location of the empty square.
-	private short g; // Actual cost to get to this state.
-	private short h; // Projected cost to get to goal state.
-	
-	private PState parent; // Parent state of this state.
-	
-	/**
-	 * Constructor for PState creating a root state.
-	 * 
-	 * @param grid
-	 * @param empty
-	 * @param g
-	 * @param parent
-	 */
-	public PState(byte grid[], byte empty)
-	{
-		this.grid = grid;
-		this.empty = empty;
-		this.g = 0;
-		this.parent = null;
-		this.h = computeHeuristic();
-		this.move = Constants.NONE;
-	}
-	
-	/**
-	 * Constructor for PState used by genSuccessors().
-	 * 
-	 * @param grid
-	 * @param empty
-	 * @param g
-	 * @param parent
-	 * @param move
-	 */
-	private PState(byte grid[], byte empty, short g, PState parent, byte move)
-	{
-		this(grid,empty);
-		this.g = g;
-		this.parent = parent;
-		this.move = move;
-	}
-	
-	/**
-	 * Returns parent.
-	 * 
-	 * @return PState parent
-	 */
-	public PState getParent()
-	{
-		return parent;
-	}
-	
-	/**
-	 * Returns g.
-	 * 
-	 * @return int g
-	 */
-	public int getG()
-	{
-		return g;
-	}
-	/**
-	 * Returns h.
-	 * 
-	 * @return int h
-	 */
-	public int getH()
-	{
-		return h;
-	}
-	
-	/**
-	 * Determines if a state excluding itself is in this states path.
-	 * 
-	 * @param state - state to search for
-	 * @return true if in path false otherwise
-	 */
-	public boolean inPath(PState state)
-	{
-		PState curr = this.parent;
-		while(curr != null)
-		{
-			if(curr.equals(state))
-				return true;
-			
-			curr = curr.parent;
-		}
-		
-		return false;
-	}
-	
-	/**
-	 * Computes Manhattan distance (horizontal distance + vertical distance) of state to goal.
-	 * 
-	 * @param state - array representing the state of the board.
-	 * @return h - the computed heuristic
-	 */
-	public short computeHeuristic()
-	{
-		short h = 0;
-		if(parent != null)
-		{
-			/* If there is a parent only compute the manhattan distance of the
-			 * moved tile and add or subtract it from the previous h.*/
-			int val, row, col, nRow, nCol, oRow, oCol, newDiff, oldDiff;
-		
-			h = parent.h;
-			
-			// Find the row and column of the actual value.
-			val = grid[parent.empty];
-			row = val/Options.GRID_ROOT;
-			col = val%Options.GRID_ROOT;
-			
-			// Find the new row/col and old row/col
-			nRow = parent.empty/Options.GRID_ROOT;
-			nCol = parent.empty%Options.GRID_ROOT;
-			oRow = this.empty/Options.GRID_ROOT;
-			oCol = this.empty%Options.GRID_ROOT;
-			
-			// Compute the new and old manhattan distances compared to actual.
-			newDiff = Math.abs(nRow - row) + Math.abs(nCol - col);
-			oldDiff = Math.abs(oRow - row) + Math.abs(oCol - col);
-			
-			// Add to old h if greater and subtract if smaller.
-			h += newDiff - oldDiff;
-		}
-		else
-		{
-			// Compute manhattan distance for every tile.
-			int row, col, tRow, tCol;
-			for(int i = 0; i < grid.length; i++)
-			{
-				if(grid[i] >= 0)
-				{
-					row = i/Options.GRID_ROOT;
-					col = i%Options.GRID_ROOT;
-					tRow = grid[i]/Options.GRID_ROOT;
-					tCol = grid[i]%Options.GRID_ROOT;
-					h += Math.abs(tRow - row) + Math.abs(tCol - col);
-				}
-			}
-		}
-
-		return h;
-	}
-	
-	/**
-	 * Generates the successor states for this state.
-	 * 
-	 * @return successors - ArrayList containing each successor state.
-	 */
-	public ArrayList<PState> genSuccessors()
-	{
-		// Return null if empty is out of bounds.
-		if(empty >= grid.length || empty < 0)
-			return null;
-
-		ArrayList<PState> successors = new ArrayList<PState>();
-		byte[] child;
-		int eRow = empty/Options.GRID_ROOT;
-		int eCol = empty%Options.GRID_ROOT;
-
-		int newPos;
-		if(eRow - 1 >= 0)
-		{
-			child = Arrays.copyOf(grid, grid.length);
-
-			newPos = (eRow - 1)*Options.GRID_ROOT + eCol;
-			child[empty] = child[newPos];
-			child[newPos] = EMPTY;
-			successors.add(new PState(child, (byte)newPos, (short)(g + 1), this, Constants.UP));
-		}
-
-		if(eRow + 1 < Options.GRID_ROOT)
-		{
-			child = Arrays.copyOf(grid, grid.length);
-
-			newPos = (eRow + 1)*Options.GRID_ROOT + eCol;
-			child[empty] = child[newPos];
-			child[newPos] = EMPTY;
-			successors.add(new PState(child, (byte)newPos, (short)(g + 1), this, Constants.DOWN));
-		}
-
-		if(eCol - 1 >= 0)
-		{
-			child = Arrays.copyOf(grid, grid.length);
-
-			newPos = (eRow)*Options.GRID_ROOT + (eCol - 1);
-			child[empty] = child[newPos];
-			child[newPos] = EMPTY;
-			successors.add(new PState(child, (byte)newPos, (short)(g + 1), this, Constants.LEFT));
-		}
-
-		if(eCol + 1 < Options.GRID_ROOT)
-		{
-			child = Arrays.copyOf(grid, grid.length);
-
-			newPos = (eRow)*Options.GRID_ROOT + (eCol + 1);
-			child[empty] = child[newPos];
-			child[newPos] = EMPTY;
-			successors.add(new PState(child, (byte)newPos, (short)(g + 1), this, Constants.RIGHT));
-		}
-
-		return successors;
-	}
-	
-	/**
-	 * Checks whether this state is a goal state. Uses .equals() if there
-	 * is only one goal state otherwise it checks for FREE tiles.
-	 * 
-	 * @param goal - the goal state 
-	 * @param multi - set this to true if there are free tiles in the goal state
-	 * @return
-	 */
-	public boolean isGoal(PState goal, boolean multi)
-	{	
-		if(!multi)
-			return this.equals(goal);
-		
-		if(goal == null)
-			return false;
-		
-		if(grid.length != goal.grid.length)
-			return false;
-		
-		for(int i = 0; i < grid.length; i++)
-		{
-			if((grid[i] != goal.grid[i]) && (goal.grid[i] != FREE))
-				return false;
-		}
-		
-		return true;
-	}
-	
-	/**
-	 * Constructs the path to goal state using the parents of this state.
-	 * 
-	 * @return path - LinkedList of moves taken to get to this state.
-	 */
-	public LinkedList<Byte> constructPath()
-	{
-		LinkedList<Byte> path = new LinkedList<Byte>();
-		PState currState = this;
-		while(currState.parent != null)
-		{
-			path.addFirst(currState.move);
-			currState = currState.parent;
-		}
-		return path;
-	}
-	
-	@Override
-	public int hashCode()
-	{
-		return Arrays.hashCode(grid);
-	}
-	
-	/**
-	 * Two states are considered equal if the grid representation is the same.
-	 * 
-	 * @return isEqual - true if they are the same false otherwise.
-	 */
-	@Override
-	public boolean equals(Object obj)
-	{
-		if(obj == null)
-			return false;
-		
-		boolean isEqual = false;
-		
-		PState state = null;
-		if(obj instanceof PState)
-		{
-			state = (PState) obj;
-			
-			isEqual = Arrays.equals(state.grid, grid);
-		}
-		
-		return isEqual;
-	}
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Represents the state of the n-puzzle. Primarily as
+ * the position of tiles on the grid. Boards of up to 16 cells
+ * without FREE tiles are stored packed in a long (see PackedGrid).
+ * Larger boards keep a Zobrist key updated on every move instead,
+ * so hashing them takes constant time.
+ * 
+ * @author joshua
+ *
+ */
+public class PState
+{
+	// Variables for multi goal representation.
+	public static final byte EMPTY = -1; 
+	public static final byte FREE = -2;
+	
+	private byte move; // Represents the move taken to get to this state.
+	
+	private byte grid[]; // The state representation of the grid. Null when packed.
+	private long packed; // The packed representation of the grid or its Zobrist key if the grid is not packed.
+	private byte length; // Number of cells on the grid.
+	private byte empty; // Location of the empty square.
+	private short g; // Actual cost to get to this state.
+	private short h; // Projected cost to get to goal state.
+	private BoardGeometry geometry; // Shape of the board. Shared by every state.
+	
+	private PState parent; // Parent state of this state.
+	
+	/**
+	 * Constructor for PState creating a root state.
+	 * 
+	 * @param grid
+	 * @param empty
+	 * @param g
+	 * @param parent
+	 */
+	public PState(byte grid[], byte empty)
+	{
+		this.length = (byte)grid.length;
+		this.geometry = BoardGeometry.forCells(grid.length);
+		if(PackedGrid.canPack(grid))
+		{
+			this.grid = null;
+			this.packed = PackedGrid.pack(grid);
+		}
+		else
+		{
+			this.grid = grid;
+			this.packed = geometry.zobrist(grid);
+		}
+		this.empty = empty;
+		this.g = 0;
+		this.parent = null;
+		this.h = computeHeuristic();
+		this.move = Constants.NONE;
+	}
+	
+	/**
+	 * Constructor for PState used by genSuccessors(). Sets the parent
+	 * before computing h so only the moved tile is recomputed.
+	 * 
+	 * @param grid
+	 * @param packed
+	 * @param empty
+	 * @param g
+	 * @param parent
+	 * @param move
+	 */
+	private PState(byte grid[], long packed, byte empty, short g, PState parent, byte move)
+	{
+		this.grid = grid;
+		this.packed = packed;
+		this.length = parent.length;
+		this.geometry = parent.geometry;
+		this.empty = empty;
+		this.g = g;
+		this.parent = parent;
+		this.move = move;
+		this.h = computeHeuristic();
+	}
+	
+	/**
+	 * Returns parent.
+	 * 
+	 * @return PState parent
+	 */
+	public PState getParent()
+	{
+		return parent;
+	}
+	
+	/**
+	 * Returns g.
+	 * 
+	 * @return int g
+	 */
+	public int getG()
+	{
+		return g;
+	}
+	/**
+	 * Returns h.
+	 * 
+	 * @return int h
+	 */
+	public int getH()
+	{
+		return h;
+	}
+	
+	/**
+	 * Returns the geometry of the board.
+	 * 
+	 * @return BoardGeometry geometry
+	 */
+	public BoardGeometry getGeometry()
+	{
+		return geometry;
+	}
+	
+	/**
+	 * Returns true if the grid is stored packed in a long.
+	 * 
+	 * @return boolean isPacked
+	 */
+	public boolean isPacked()
+	{
+		return grid == null;
+	}
+	
+	/**
+	 * Returns the packed grid. Only meaningful if isPacked() is true.
+	 * 
+	 * @return long packed
+	 */
+	public long getPacked()
+	{
+		return packed;
+	}
+	
+	/**
+	 * Returns the value of the tile at pos or EMPTY if pos is the empty square.
+	 * 
+	 * @param pos - position on the grid.
+	 * @return byte the tile at pos.
+	 */
+	public byte tileAt(int pos)
+	{
+		if(grid != null)
+			return grid[pos];
+		
+		if(pos == empty)
+			return EMPTY;
+		
+		return (byte)PackedGrid.get(packed, pos);
+	}
+	
+	/**
+	 * Returns the location of the empty square.
+	 * 
+	 * @return int empty
+	 */
+	public int getEmpty()
+	{
+		return empty;
+	}
+	
+	/**
+	 * Returns a copy of the grid as an array with EMPTY at the empty square.
+	 * 
+	 * @return byte[] grid
+	 */
+	public byte[] toGrid()
+	{
+		byte copy[] = new byte[length];
+		for(int i = 0; i < length; i++)
+			copy[i] = tileAt(i);
+		return copy;
+	}
+	
+	/**
+	 * Determines if a state excluding itself is in this states path.
+	 * 
+	 * @param state - state to search for
+	 * @return true if in path false otherwise
+	 */
+	public boolean inPath(PState state)
+	{
+		PState curr = this.parent;
+		while(curr != null)
+		{
+			if(curr.equals(state))
+				return true;
+			
+			curr = curr.parent;
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Computes Manhattan distance (horizontal distance + vertical distance) of state to goal.
+	 * 
+	 * @param state - array representing the state of the board.
+	 * @return h - the computed heuristic
+	 */
+	public short computeHeuristic()
+	{
+		short h = 0;
+		if(parent != null)
+		{
+			/* If there is a parent only look up the change in manhattan distance
+			 * of the moved tile and add it to the previous h. The tile moved from
+			 * the empty square of this state to the empty square of the parent.*/
+			int val = tileAt(parent.empty);
+			h = (short)(parent.h + geometry.delta(val, this.empty, parent.empty));
+		}
+		else
+		{
+			// Compute manhattan distance for every tile.
+			int val;
+			for(int i = 0; i < length; i++)
+			{
+				val = tileAt(i);
+				if(val >= 0)
+					h += geometry.distance(i, val);
+			}
+		}
+
+		return h;
+	}
+	
+	/**
+	 * Generates the successor states for this state.
+	 * 
+	 * @return successors - ArrayList containing each successor state.
+	 */
+	public ArrayList<PState> genSuccessors()
+	{
+		// Return null if empty is out of bounds.
+		if(empty >= length || empty < 0)
+			return null;
+
+		// Every legal move of the empty square is looked up from its position.
+		int next[] = geometry.neighbors(empty);
+		byte directions[] = geometry.directions(empty);
+		ArrayList<PState> successors = new ArrayList<PState>(next.length);
+		for(int i = 0; i < next.length; i++)
+			successors.add(genChild(next[i], directions[i]));
+
+		return successors;
+	}
+	
+	/**
+	 * Generates the successor state reached by moving the empty square in direction.
+	 * 
+	 * @param direction - the direction the empty square moves from Constants class.
+	 * @return child - the successor state or null if the move leaves the grid.
+	 */
+	public PState slide(byte direction)
+	{
+		if(direction < 0 || direction > 3)
+			return null;
+		
+		int newPos = geometry.moveTo(empty, direction);
+		return (newPos >= 0) ? genChild(newPos, direction) : null;
+	}
+	
+	/**
+	 * Generates the child state reached by sliding the tile at newPos into
+	 * the empty square. Packed states swap two nibbles instead of copying the grid.
+	 * Other states update their Zobrist key with the moved tile.
+	 * 
+	 * @param newPos - the new position of the empty square.
+	 * @param move - the move taken to get to the child.
+	 * @return child - the successor state.
+	 */
+	private PState genChild(int newPos, byte move)
+	{
+		if(grid == null)
+			return new PState(null, PackedGrid.swap(packed, empty, newPos), (byte)newPos, (short)(g + 1), this, move);
+		
+		byte[] child = Arrays.copyOf(grid, grid.length);
+		child[empty] = child[newPos];
+		child[newPos] = EMPTY;
+		long key = packed ^ geometry.zobristMove(child[empty], newPos, empty);
+		return new PState(child, key, (byte)newPos, (short)(g + 1), this, move);
+	}
+	
+	/**
+	 * Checks whether this state is a goal state. Uses .equals() if there
+	 * is only one goal state otherwise it checks for FREE tiles.
+	 * 
+	 * @param goal - the goal state 
+	 * @param multi - set this to true if there are free tiles in the goal state
+	 * @return
+	 */
+	public boolean isGoal(PState goal, boolean multi)
+	{	
+		if(!multi)
+			return this.equals(goal);
+		
+		if(goal == null)
+			return false;
+		
+		if(length != goal.length)
+			return false;
+		
+		byte want;
+		for(int i = 0; i < length; i++)
+		{
+			want = goal.tileAt(i);
+			if((tileAt(i) != want) && (want != FREE))
+				return false;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Constructs the path to goal state using the parents of this state.
+	 * 
+	 * @return path - MoveSequence of moves taken to get to this state.
+	 */
+	public MoveSequence constructPath()
+	{
+		MoveSequence path = new MoveSequence(g);
+		PState currState = this;
+		while(currState.parent != null)
+		{
+			path.append(currState.move);
+			currState = currState.parent;
+		}
+		path.reverse();
+		return path;
+	}
+	
+	@Override
+	public int hashCode()
+	{
+		// Both the packed grid and the Zobrist key are hashed from packed.
+		return PackedGrid.hash(packed);
+	}
+	
+	/**
+	 * Two states are considered equal if the grid representation is the same.
+	 * Packed states only compare their longs.
+	 * 
+	 * @return isEqual - true if they are the same false otherwise.
+	 */
+	@Override
+	public boolean equals(Object obj)
+	{
+		if(obj == null)
+			return false;
+		
+		boolean isEqual = false;
+		
+		PState state = null;
+		if(obj instanceof PState)
+		{
+			state = (PState) obj;
+			
+			if(grid == null && state.grid == null)
+			{
+				isEqual = (packed == state.packed);
+			}
+			else if(grid != null && state.grid != null)
+			{
+				// Equal grids have equal Zobrist keys so the grids are only compared if the keys match.
+				isEqual = (packed == state.packed) && Arrays.equals(state.grid, grid);
+			}
+			else if(length == state.length)
+			{
+				isEqual = true;
+				for(int i = 0; i < length && isEqual; i++)
+					isEqual = (tileAt(i) == state.tileAt(i));
+			}
+		}
+		
+		return isEqual;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,122 @@
+/**
+ * Static helpers for the bit-packed grid representation used by PState
+ * on boards of up to 16 cells. Each cell is stored as a 4 bit nibble in a
+ * single long with cell 0 in the lowest nibble. The empty square holds the
+ * value of the tile that is missing from the board (the goal value of the
+ * empty square) so every nibble is distinct and states compare on the long alone.
+ *
+ * @author joshua
+ *
+ */
+public final class PackedGrid
+{
+	public static final int MAX_CELLS = 16;
+
+	private static final int BITS = 4;
+	private static final long MASK = 0xFL;
+
+	// Odd constant from the golden ratio used to spread the bits when hashing.
+	private static final long MIX = 0x9E3779B97F4A7C15L;
+
+	private PackedGrid()
+	{
+	}
+
+	/**
+	 * Determines if a grid can be packed. The grid must have at most MAX_CELLS
+	 * cells, exactly one EMPTY and no FREE cells.
+	 *
+	 * @param grid - array representing the state of the board.
+	 * @return true if the grid can be packed false otherwise.
+	 */
+	public static boolean canPack(byte grid[])
+	{
+		if(grid == null || grid.length > MAX_CELLS)
+			return false;
+
+		int seen = 0, empties = 0;
+		for(int i = 0; i < grid.length; i++)
+		{
+			if(grid[i] == PState.EMPTY)
+			{
+				empties++;
+			}
+			else if(grid[i] < 0 || grid[i] >= grid.length || (seen & (1 << grid[i])) != 0)
+			{
+				return false;
+			}
+			else
+			{
+				seen |= 1 << grid[i];
+			}
+		}
+
+		return empties == 1;
+	}
+
+	/**
+	 * Packs a grid into a long. Assumes canPack(grid) is true.
+	 *
+	 * @param grid - array representing the state of the board.
+	 * @return packed - the packed grid.
+	 */
+	public static long pack(byte grid[])
+	{
+		// The empty square takes the value missing from the grid.
+		int missing = grid.length*(grid.length - 1)/2;
+		long packed = 0;
+		int empty = 0;
+		for(int i = 0; i < grid.length; i++)
+		{
+			if(grid[i] == PState.EMPTY)
+			{
+				empty = i;
+			}
+			else
+			{
+				missing -= grid[i];
+				packed |= (long)grid[i] << (i*BITS);
+			}
+		}
+
+		return packed | ((long)missing << (empty*BITS));
+	}
+
+	/**
+	 * Returns the nibble stored at pos.
+	 *
+	 * @param packed - the packed grid.
+	 * @param pos - the cell to read.
+	 * @return the value at pos.
+	 */
+	public static int get(long packed, int pos)
+	{
+		return (int)((packed >>> (pos*BITS)) & MASK);
+	}
+
+	/**
+	 * Swaps the nibbles at from and to. Used to slide a tile into the empty square.
+	 *
+	 * @param packed - the packed grid.
+	 * @param from - the first cell.
+	 * @param to - the second cell.
+	 * @return the packed grid with both cells swapped.
+	 */
+	public static long swap(long packed, int from, int to)
+	{
+		long diff = ((packed >>> (from*BITS)) ^ (packed >>> (to*BITS))) & MASK;
+		return packed ^ ((diff << (from*BITS)) | (diff << (to*BITS)));
+	}
+
+	/**
+	 * Hashes a packed grid. Multiplies by MIX and keeps the high bits
+	 * so every cell affects the result.
+	 *
+	 * @param packed - the packed grid.
+	 * @return the hash of packed.
+	 */
+	public static int hash(long packed)
+	{
+		return (int)((packed*MIX) >>> 32);
+	}
+}
\ No newline at end of file
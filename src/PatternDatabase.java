@@ -0,0 +1,852 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Additive disjoint pattern database. The tiles are split into patterns
+ * and for every placement of a pattern's tiles the table holds the fewest
+ * moves of those tiles needed to bring them home. Moves of other tiles are
+ * free so the values of the patterns can be added and stay admissible.
+ *
+ * When the goal and the partition are symmetric about the main diagonal only
+ * one table is kept for each pair of mirrored patterns. The same tables then
+ * also give the value of the mirrored board (see PatternHeuristic).
+ *
+ * Tables are built by a parallel breadth first search back from the goal
+ * and written to Options.PDB_DIR or the directory a Solver is given. Later runs map the file read only so the
+ * tables stay off the heap. Tables of boards larger than 4x4 hold the
+ * distance above Manhattan distance in 4 bits (see NIBBLE).
+ *
+ * @author joshua
+ *
+ */
+public class PatternDatabase
+{
+	static final int MAGIC = 0x50444232; // "PDB2"
+	private static final byte UNSEEN = -1;
+
+	// Table formats.
+	static final byte BYTE = 0; // One byte holding the distance.
+	static final byte NIBBLE = 1; // 4 bits holding (distance - Manhattan distance)/2.
+	private static final int NIBBLE_MAX = 15;
+
+	// Largest board whose tables are built when solving. Larger tables are built offline with main().
+	private static final int BUILD_LIMIT = 4;
+
+	/* Goal positions of each pattern with the empty square in the bottom right corner.
+	 * The 5x5 partition is symmetric about the main diagonal. */
+	private static final byte PARTITION_4[][] = {{0, 1, 2, 4, 5}, {3, 6, 7, 10, 11}, {8, 9, 12, 13, 14}};
+	private static final byte PARTITION_5[][] = {{0, 1, 2, 5, 6, 10}, {3, 4, 8, 9, 13, 14},
+		{15, 16, 17, 20, 21, 22}, {7, 11, 12, 18, 19, 23}};
+
+	private static final HashMap<String, PatternDatabase> cache = new HashMap<String, PatternDatabase>(); // By file path.
+
+	private final int n; // Number of rows and columns.
+	private final boolean mirrored; // True if the goal and partition are symmetric.
+	private final byte tiles[][]; // Tiles of each table.
+	private final byte formats[]; // Format of each table.
+	private final int offsets[]; // Offset of each table in buffer.
+	private final ByteBuffer buffer; // The tables.
+	private final byte dist[][]; // dist[tile][pos] is the Manhattan distance of tile at pos.
+
+	/**
+	 * Constructs a PatternDatabase on top of buffer.
+	 *
+	 * @param n - number of rows and columns.
+	 * @param mirrored - true if the goal and partition are symmetric.
+	 * @param tiles - tiles of each table.
+	 * @param formats - format of each table.
+	 * @param buffer - the tables one after the other.
+	 * @param start - offset of the first table in buffer.
+	 */
+	private PatternDatabase(int n, boolean mirrored, byte tiles[][], byte formats[], ByteBuffer buffer, int start)
+	{
+		this.n = n;
+		this.mirrored = mirrored;
+		this.tiles = tiles;
+		this.formats = formats;
+		this.buffer = buffer;
+		offsets = new int[tiles.length];
+		for(int t = 0, offset = start; t < tiles.length; t++)
+		{
+			offsets[t] = offset;
+			offset += bytes(tiles[t].length, n*n, formats[t]);
+		}
+
+		int cells = n*n;
+		dist = new byte[cells][cells];
+		for(int tile = 0; tile < cells; tile++)
+		{
+			for(int pos = 0; pos < cells; pos++)
+				dist[tile][pos] = (byte)(Math.abs(tile/n - pos/n) + Math.abs(tile%n - pos%n));
+		}
+	}
+
+	/**
+	 * Returns the number of tables.
+	 *
+	 * @return int tableCount
+	 */
+	public int getTableCount()
+	{
+		return tiles.length;
+	}
+
+	/**
+	 * Returns the tiles of table t.
+	 *
+	 * @param t - the table.
+	 * @return byte[] tiles
+	 */
+	public byte[] getTiles(int t)
+	{
+		return tiles[t];
+	}
+
+	/**
+	 * Returns true if the tables also serve the board mirrored about the main diagonal.
+	 *
+	 * @return boolean mirrored
+	 */
+	public boolean isMirrored()
+	{
+		return mirrored;
+	}
+
+	/**
+	 * Returns the number of rows and columns.
+	 *
+	 * @return int n
+	 */
+	public int getN()
+	{
+		return n;
+	}
+
+	/**
+	 * Returns the number of moves needed to bring the tiles of table t home.
+	 *
+	 * @param t - the table.
+	 * @param pos - positions of the tiles of table t.
+	 * @return int the distance.
+	 */
+	public int lookup(int t, byte pos[])
+	{
+		int rank = rank(pos, pos.length, n*n);
+		if(formats[t] == BYTE)
+			return buffer.get(offsets[t] + rank) & 0xFF;
+
+		int packed = buffer.get(offsets[t] + (rank >> 1));
+		int extra = ((rank & 1) == 0) ? packed & 0xF : (packed >> 4) & 0xF;
+		int md = 0;
+		for(int i = 0; i < pos.length; i++)
+			md += dist[tiles[t][i]][pos[i]];
+		return md + 2*extra;
+	}
+
+	/**
+	 * Returns the pattern database for an n x n board whose goal has the empty
+	 * square at goalEmpty, with the tables in Options.PDB_DIR.
+	 *
+	 * @param n - the number of rows and columns.
+	 * @param goalEmpty - position of the empty square in the goal.
+	 * @return the pattern database or null if there is none.
+	 */
+	public static PatternDatabase get(int n, int goalEmpty)
+	{
+		return get(Options.PDB_DIR, n, goalEmpty);
+	}
+
+	/**
+	 * Returns the pattern database for an n x n board whose goal has the empty
+	 * square at goalEmpty. Loads the tables from dir. Tables of boards up to
+	 * BUILD_LIMIT are built first if the file does not exist.
+	 *
+	 * @param dir - the directory holding pattern database files.
+	 * @param n - the number of rows and columns.
+	 * @param goalEmpty - position of the empty square in the goal.
+	 * @return the pattern database or null if there is none.
+	 */
+	public static synchronized PatternDatabase get(String dir, int n, int goalEmpty)
+	{
+		File file = file(dir, n, goalEmpty);
+		String key = file.getPath();
+		if(cache.containsKey(key))
+			return cache.get(key);
+
+		PatternDatabase pdb = null;
+		try
+		{
+			if(file.exists())
+				pdb = map(file);
+		} catch(IOException e)
+		{
+			// Stale or damaged file. Build it again below.
+			pdb = null;
+		}
+
+		if(pdb == null && n <= BUILD_LIMIT && partition(n, goalEmpty) != null)
+		{
+			try
+			{
+				write(file, n, goalEmpty);
+				pdb = map(file);
+			} catch(IOException e)
+			{
+				// Fall back to tables in memory.
+				System.err.println("Failed to write pattern database " + file + "!");
+				pdb = create(n, goalEmpty);
+			}
+		}
+
+		cache.put(key, pdb);
+		return pdb;
+	}
+
+	/**
+	 * Returns the file holding the tables for an n x n board.
+	 *
+	 * @param dir - the directory holding pattern database files.
+	 * @param n - the number of rows and columns.
+	 * @param goalEmpty - position of the empty square in the goal.
+	 * @return File file
+	 */
+	private static File file(String dir, int n, int goalEmpty)
+	{
+		return new File(dir, "pdb" + n + "-" + goalEmpty + ".bin");
+	}
+
+	/**
+	 * Splits the tiles of an n x n board into patterns. The tile whose goal is
+	 * the bottom right corner takes the place of the tile missing at goalEmpty.
+	 *
+	 * @param n - the number of rows and columns.
+	 * @param goalEmpty - position of the empty square in the goal.
+	 * @return patterns - tiles of each pattern or null if there is no partition for n.
+	 */
+	private static byte[][] partition(int n, int goalEmpty)
+	{
+		byte partition[][];
+		if(n == 4)
+			partition = PARTITION_4;
+		else if(n == 5)
+			partition = PARTITION_5;
+		else
+			return null;
+
+		byte corner = (byte)(n*n - 1);
+		byte patterns[][] = new byte[partition.length][];
+		for(int p = 0; p < patterns.length; p++)
+		{
+			patterns[p] = Arrays.copyOf(partition[p], partition[p].length);
+			for(int i = 0; i < patterns[p].length; i++)
+			{
+				if(patterns[p][i] == goalEmpty)
+					patterns[p][i] = corner;
+			}
+		}
+		return patterns;
+	}
+
+	/**
+	 * Returns pos mirrored about the main diagonal.
+	 *
+	 * @param pos - position on the grid.
+	 * @param n - the number of rows and columns.
+	 * @return int the mirrored position.
+	 */
+	public static int mirror(int pos, int n)
+	{
+		return (pos%n)*n + pos/n;
+	}
+
+	/**
+	 * Mirrors every tile of a pattern.
+	 *
+	 * @param tiles - the tiles of the pattern.
+	 * @param n - the number of rows and columns.
+	 * @return the mirrored tiles in the same order.
+	 */
+	public static byte[] mirror(byte tiles[], int n)
+	{
+		byte mirrored[] = new byte[tiles.length];
+		for(int i = 0; i < tiles.length; i++)
+			mirrored[i] = (byte)mirror(tiles[i], n);
+		return mirrored;
+	}
+
+	/**
+	 * Checks if two patterns hold the same tiles.
+	 *
+	 * @param a - the first pattern.
+	 * @param b - the second pattern.
+	 * @return true if they hold the same tiles false otherwise.
+	 */
+	public static boolean sameTiles(byte a[], byte b[])
+	{
+		if(a.length != b.length)
+			return false;
+
+		byte x[] = Arrays.copyOf(a, a.length);
+		byte y[] = Arrays.copyOf(b, b.length);
+		Arrays.sort(x);
+		Arrays.sort(y);
+		return Arrays.equals(x, y);
+	}
+
+	/**
+	 * Checks if the goal and every pattern map to themselves or another
+	 * pattern when mirrored about the main diagonal.
+	 *
+	 * @param n - the number of rows and columns.
+	 * @param goalEmpty - position of the empty square in the goal.
+	 * @param patterns - tiles of each pattern.
+	 * @return true if the tables can serve the mirrored board.
+	 */
+	private static boolean isSymmetric(int n, int goalEmpty, byte patterns[][])
+	{
+		if(mirror(goalEmpty, n) != goalEmpty)
+			return false;
+
+		for(byte pattern[]: patterns)
+		{
+			boolean found = false;
+			for(byte other[]: patterns)
+				found |= sameTiles(mirror(pattern, n), other);
+			if(!found)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the patterns that need a table. If the partition is symmetric
+	 * the mirror of a pattern already holding a table does not get one.
+	 *
+	 * @param n - the number of rows and columns.
+	 * @param patterns - tiles of each pattern.
+	 * @param mirrored - true if the partition is symmetric.
+	 * @return tiles of each table.
+	 */
+	private static byte[][] tables(int n, byte patterns[][], boolean mirrored)
+	{
+		ArrayList<byte[]> tables = new ArrayList<byte[]>();
+		for(byte pattern[]: patterns)
+		{
+			boolean covered = false;
+			for(byte table[]: tables)
+				covered |= mirrored && sameTiles(mirror(table, n), pattern);
+			if(!covered)
+				tables.add(pattern);
+		}
+		return tables.toArray(new byte[tables.size()][]);
+	}
+
+	/**
+	 * Builds the tables and keeps them off the heap in a direct buffer.
+	 *
+	 * @param n - the number of rows and columns.
+	 * @param goalEmpty - position of the empty square in the goal.
+	 * @return the pattern database.
+	 */
+	private static PatternDatabase create(int n, int goalEmpty)
+	{
+		byte patterns[][] = partition(n, goalEmpty);
+		boolean mirrored = isSymmetric(n, goalEmpty, patterns);
+		byte tiles[][] = tables(n, patterns, mirrored);
+		byte formats[] = new byte[tiles.length];
+
+		int total = 0;
+		for(int t = 0; t < tiles.length; t++)
+		{
+			formats[t] = format(n);
+			total += bytes(tiles[t].length, n*n, formats[t]);
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocateDirect(total);
+		for(int t = 0; t < tiles.length; t++)
+			buffer.put(encode(n, tiles[t], build(n, tiles[t]), formats[t]));
+		return new PatternDatabase(n, mirrored, tiles, formats, buffer, 0);
+	}
+
+	/**
+	 * Builds the tables and writes them to file. The file holds a header
+	 * (magic, n, goalEmpty, mirrored, number of tables, then the size, tiles
+	 * and format of each table) followed by the tables.
+	 *
+	 * @param file - the file to write.
+	 * @param n - the number of rows and columns.
+	 * @param goalEmpty - position of the empty square in the goal.
+	 * @throws IOException
+	 */
+	private static void write(File file, int n, int goalEmpty) throws IOException
+	{
+		byte patterns[][] = partition(n, goalEmpty);
+		boolean mirrored = isSymmetric(n, goalEmpty, patterns);
+		byte tiles[][] = tables(n, patterns, mirrored);
+
+		if(file.getParentFile() != null)
+			file.getParentFile().mkdirs();
+
+		// Write to a temporary file first so a partial file is never mapped.
+		File temp = new File(file.getPath() + ".tmp");
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+		try
+		{
+			out.writeInt(MAGIC);
+			out.writeInt(n);
+			out.writeInt(goalEmpty);
+			out.writeBoolean(mirrored);
+			out.writeInt(tiles.length);
+			for(byte table[]: tiles)
+			{
+				out.writeInt(table.length);
+				out.write(table);
+				out.writeByte(format(n));
+			}
+			for(byte table[]: tiles)
+				out.write(encode(n, table, build(n, table), format(n)));
+		} finally
+		{
+			out.close();
+		}
+
+		file.delete();
+		if(!temp.renameTo(file))
+			throw new IOException("Failed to rename " + temp);
+	}
+
+	/**
+	 * Maps a file written by write() read only.
+	 *
+	 * @param file - the file to map.
+	 * @return the pattern database.
+	 * @throws IOException
+	 */
+	private static PatternDatabase map(File file) throws IOException
+	{
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try
+		{
+			FileChannel channel = raf.getChannel();
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+			if(buffer.getInt() != MAGIC)
+				throw new IOException("Bad pattern database " + file);
+
+			int n = buffer.getInt();
+			buffer.getInt(); // goalEmpty is part of the file name.
+			boolean mirrored = buffer.get() != 0;
+			byte tiles[][] = new byte[buffer.getInt()][];
+			byte formats[] = new byte[tiles.length];
+			long total = 0;
+			for(int t = 0; t < tiles.length; t++)
+			{
+				tiles[t] = new byte[buffer.getInt()];
+				buffer.get(tiles[t]);
+				formats[t] = buffer.get();
+				total += bytes(tiles[t].length, n*n, formats[t]);
+			}
+
+			if(buffer.remaining() != total)
+				throw new IOException("Bad pattern database " + file);
+
+			return new PatternDatabase(n, mirrored, tiles, formats, buffer, buffer.position());
+		} finally
+		{
+			raf.close();
+		}
+	}
+
+	/**
+	 * Returns the table format used for an n x n board.
+	 *
+	 * @param n - the number of rows and columns.
+	 * @return byte format
+	 */
+	private static byte format(int n)
+	{
+		return (n*n > 16) ? NIBBLE : BYTE;
+	}
+
+	/**
+	 * Returns the number of bytes in a table.
+	 *
+	 * @param k - the number of tiles.
+	 * @param cells - the number of cells.
+	 * @param format - the format of the table.
+	 * @return int bytes
+	 */
+	static int bytes(int k, int cells, byte format)
+	{
+		int size = size(k, cells);
+		return (format == BYTE) ? size : (size + 1) >> 1;
+	}
+
+	/**
+	 * Encodes a table built by build() in format. NIBBLE tables hold half the
+	 * distance above Manhattan distance, which is always even, capped at
+	 * NIBBLE_MAX so the value stays admissible.
+	 *
+	 * @param n - the number of rows and columns.
+	 * @param tiles - the tiles of the pattern.
+	 * @param table - the distance for each rank.
+	 * @param format - the format of the table.
+	 * @return the encoded table.
+	 */
+	private static byte[] encode(int n, byte tiles[], byte table[], byte format)
+	{
+		if(format == BYTE)
+			return table;
+
+		int cells = n*n;
+		byte pos[] = new byte[tiles.length];
+		byte packed[] = new byte[(table.length + 1) >> 1];
+		for(int rank = 0; rank < table.length; rank++)
+		{
+			unrank(rank, tiles.length, cells, pos);
+			int md = 0;
+			for(int i = 0; i < tiles.length; i++)
+				md += Math.abs(tiles[i]/n - pos[i]/n) + Math.abs(tiles[i]%n - pos[i]%n);
+
+			int extra = Math.min(((table[rank] & 0xFF) - md) >> 1, NIBBLE_MAX);
+			packed[rank >> 1] |= ((rank & 1) == 0) ? extra : extra << 4;
+		}
+		return packed;
+	}
+
+	/**
+	 * Returns the number of ways to place k tiles on cells cells.
+	 *
+	 * @param k - the number of tiles.
+	 * @param cells - the number of cells.
+	 * @return int size
+	 */
+	public static int size(int k, int cells)
+	{
+		int size = 1;
+		for(int i = 0; i < k; i++)
+			size *= cells - i;
+		return size;
+	}
+
+	/**
+	 * Ranks the positions of k tiles. Each position is counted among
+	 * the cells not taken by the tiles before it, so ranks run from 0
+	 * to size(k, cells) - 1.
+	 *
+	 * @param pos - positions of the tiles.
+	 * @param k - the number of tiles.
+	 * @param cells - the number of cells.
+	 * @return int rank
+	 */
+	public static int rank(byte pos[], int k, int cells)
+	{
+		int rank = 0, used = 0;
+		for(int i = 0; i < k; i++)
+		{
+			int p = pos[i];
+			rank = rank*(cells - i) + p - Integer.bitCount(used & ((1 << p) - 1));
+			used |= 1 << p;
+		}
+		return rank;
+	}
+
+	/**
+	 * Reverses rank().
+	 *
+	 * @param rank - the rank.
+	 * @param k - the number of tiles.
+	 * @param cells - the number of cells.
+	 * @param pos - receives the positions of the tiles.
+	 */
+	public static void unrank(int rank, int k, int cells, byte pos[])
+	{
+		for(int i = k - 1; i >= 0; i--)
+		{
+			pos[i] = (byte)(rank % (cells - i));
+			rank /= cells - i;
+		}
+
+		int used = 0;
+		for(int i = 0; i < k; i++)
+		{
+			// Find the pos[i]th free cell.
+			int p = -1;
+			for(int free = pos[i]; free >= 0; free--)
+			{
+				p++;
+				while((used & (1 << p)) != 0)
+					p++;
+			}
+			pos[i] = (byte)p;
+			used |= 1 << p;
+		}
+	}
+
+	/**
+	 * Builds the table for one pattern with a breadth first search back from
+	 * the goal over (positions of the pattern's tiles, empty square). Moving
+	 * the empty square over a free cell costs nothing, moving a pattern tile
+	 * costs one. Each layer is closed under free moves and then expanded,
+	 * both on all available processors. States are tracked in bit sets so
+	 * 6 tile patterns of the 24-puzzle fit in memory.
+	 *
+	 * @param n - the number of rows and columns.
+	 * @param tiles - the tiles of the pattern.
+	 * @return table - the distance for each rank.
+	 */
+	static byte[] build(int n, byte tiles[])
+	{
+		final int cells = n*n;
+		final int k = tiles.length;
+		final byte table[] = new byte[size(k, cells)];
+		final int words = (int)(((long)table.length*cells + 63) >> 6);
+		final AtomicLongArray seen = new AtomicLongArray(words);
+		Arrays.fill(table, UNSEEN);
+
+		final int moves[][] = new int[cells][];
+		for(int pos = 0; pos < cells; pos++)
+		{
+			int row = pos/n, col = pos%n, count = 0;
+			int next[] = new int[4];
+			if(row - 1 >= 0)
+				next[count++] = pos - n;
+			if(row + 1 < n)
+				next[count++] = pos + n;
+			if(col - 1 >= 0)
+				next[count++] = pos - 1;
+			if(col + 1 < n)
+				next[count++] = pos + 1;
+			moves[pos] = Arrays.copyOf(next, count);
+		}
+
+		// Seed the search with every empty square not covered by the pattern at home.
+		AtomicLongArray layer = new AtomicLongArray(words);
+		AtomicLongArray next = new AtomicLongArray(words);
+		int home = rank(tiles, k, cells);
+		for(int blank = 0; blank < cells; blank++)
+		{
+			boolean covered = false;
+			for(byte tile: tiles)
+				covered |= (tile == blank);
+			if(!covered)
+			{
+				set(seen, (long)home*cells + blank);
+				set(layer, (long)home*cells + blank);
+			}
+		}
+		table[home] = 0;
+
+		final int threads = Runtime.getRuntime().availableProcessors();
+		final long found[] = new long[threads];
+		for(int depth = 0; ; depth++)
+		{
+			final AtomicLongArray current = layer;
+			final AtomicLongArray following = next;
+			final byte d = (byte)(depth + 1);
+
+			// Close the layer under free moves.
+			runParallel(threads, new Worker()
+			{
+				@Override
+				public void run(int t)
+				{
+					byte pos[] = new byte[k];
+					long stack[] = new long[64];
+					for(int w = (int)((long)t*words/threads), end = (int)((long)(t + 1)*words/threads); w < end; w++)
+					{
+						for(long bits = current.get(w); bits != 0; bits &= bits - 1)
+						{
+							int size = 0;
+							stack[size++] = ((long)w << 6) + Long.numberOfTrailingZeros(bits);
+							while(size > 0)
+							{
+								long state = stack[--size];
+								int rank = (int)(state/cells), blank = (int)(state%cells);
+								unrank(rank, k, cells, pos);
+								int used = 0;
+								for(int j = 0; j < k; j++)
+									used |= 1 << pos[j];
+
+								for(int cell: moves[blank])
+								{
+									long child = (long)rank*cells + cell;
+									if((used & (1 << cell)) == 0 && set(seen, child))
+									{
+										set(current, child);
+										if(size == stack.length)
+											stack = Arrays.copyOf(stack, size << 1);
+										stack[size++] = child;
+									}
+								}
+							}
+						}
+					}
+				}
+			});
+
+			// Expand the layer with moves of pattern tiles.
+			runParallel(threads, new Worker()
+			{
+				@Override
+				public void run(int t)
+				{
+					byte pos[] = new byte[k];
+					long count = 0;
+					for(int w = (int)((long)t*words/threads), end = (int)((long)(t + 1)*words/threads); w < end; w++)
+					{
+						for(long bits = current.get(w); bits != 0; bits &= bits - 1)
+						{
+							long state = ((long)w << 6) + Long.numberOfTrailingZeros(bits);
+							int rank = (int)(state/cells), blank = (int)(state%cells);
+							unrank(rank, k, cells, pos);
+
+							for(int cell: moves[blank])
+							{
+								for(int j = 0; j < k; j++)
+								{
+									if(pos[j] == cell)
+									{
+										pos[j] = (byte)blank;
+										int childRank = rank(pos, k, cells);
+										pos[j] = (byte)cell;
+
+										long child = (long)childRank*cells + cell;
+										if(set(seen, child))
+										{
+											set(following, child);
+											if(table[childRank] == UNSEEN)
+												table[childRank] = d;
+											count++;
+										}
+										break;
+									}
+								}
+							}
+						}
+					}
+					found[t] = count;
+				}
+			});
+
+			long total = 0;
+			for(long count: found)
+				total += count;
+			if(total == 0)
+				break;
+
+			// The expanded layer becomes the next one to fill.
+			for(int w = 0; w < words; w++)
+				current.set(w, 0);
+			layer = following;
+			next = current;
+		}
+
+		return table;
+	}
+
+	/**
+	 * Sets bit index of bits.
+	 *
+	 * @param bits - the bit set.
+	 * @param index - the bit to set.
+	 * @return true if the bit was not set before.
+	 */
+	private static boolean set(AtomicLongArray bits, long index)
+	{
+		int word = (int)(index >>> 6);
+		long mask = 1L << (index & 63);
+		long old;
+		do
+		{
+			old = bits.get(word);
+			if((old & mask) != 0)
+				return false;
+		} while(!bits.compareAndSet(word, old, old | mask));
+		return true;
+	}
+
+	/**
+	 * Work done by one thread of runParallel().
+	 */
+	private interface Worker
+	{
+		void run(int t);
+	}
+
+	/**
+	 * Runs worker on threads threads and waits for all of them to finish.
+	 *
+	 * @param threads - the number of threads.
+	 * @param worker - the work to run. Receives the index of its thread.
+	 */
+	private static void runParallel(int threads, final Worker worker)
+	{
+		Thread pool[] = new Thread[threads];
+		for(int t = 0; t < threads; t++)
+		{
+			final int index = t;
+			pool[t] = new Thread(new Runnable()
+			{
+				public void run()
+				{
+					worker.run(index);
+				}
+			});
+			pool[t].start();
+		}
+
+		for(Thread thread: pool)
+		{
+			try
+			{
+				thread.join();
+			} catch(InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Builds the pattern database for a board offline. Tables for boards
+	 * larger than 4x4 take a long time and several gigabytes of memory.
+	 *
+	 * @param args - the number of rows and columns and the position of the empty square in the goal.
+	 */
+	public static void main(String[] args)
+	{
+		if(args.length != 2)
+		{
+			System.err.println("Usage: java PatternDatabase <n> <goalEmpty>");
+			System.exit(1);
+		}
+
+		int n = Integer.parseInt(args[0]);
+		int goalEmpty = Integer.parseInt(args[1]);
+		if(partition(n, goalEmpty) == null || goalEmpty < 0 || goalEmpty >= n*n)
+		{
+			System.err.println("No pattern database for " + n + "x" + n + "!");
+			System.exit(1);
+		}
+
+		try
+		{
+			write(file(Options.PDB_DIR, n, goalEmpty), n, goalEmpty);
+		} catch(IOException e)
+		{
+			System.err.println("Failed to write pattern database " + file(Options.PDB_DIR, n, goalEmpty) + "!");
+			System.exit(1);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,152 @@
+import java.util.Arrays;
+
+/**
+ * Heuristic for a single search using a PatternDatabase. Keeps the position
+ * of every pattern tile and the value of every pattern so a move only looks
+ * up the patterns holding the moved tile.
+ *
+ * If the pattern database is mirrored the board mirrored about the main
+ * diagonal is looked up as well and the larger sum is used. Both sums are
+ * admissible because the goal is its own mirror.
+ *
+ * @author joshua
+ *
+ */
+public class PatternHeuristic extends Heuristic
+{
+	private static final int NORMAL = 0, MIRROR = 1;
+
+	private PatternDatabase pdb;
+	private int n;
+	private int sides; // 2 if the mirrored board is looked up as well.
+	private int perSide; // Number of lookups on each side.
+	private byte mirror[]; // mirror[pos] is pos mirrored about the main diagonal.
+
+	// One lookup for each pattern on each side.
+	private int table[]; // table[l] is the table used by lookup l.
+	private boolean flip[]; // flip[l] is true if lookup l mirrors the positions.
+	private byte pos[][]; // pos[l] are the positions given to the table by lookup l.
+	private int values[]; // values[l] is the current value of lookup l.
+
+	private int lookupOf[][]; // lookupOf[side][tile] is the lookup holding tile or -1.
+	private byte index[][]; // index[side][tile] is the place of tile in its lookup.
+	private int sums[]; // sums[side] is the sum of the values on side.
+
+	/**
+	 * Constructs the heuristic for pdb.
+	 *
+	 * @param pdb - the pattern database to look up.
+	 */
+	public PatternHeuristic(PatternDatabase pdb)
+	{
+		this.pdb = pdb;
+		n = pdb.getN();
+		sides = pdb.isMirrored() ? 2 : 1;
+
+		int cells = n*n;
+		int tables = pdb.getTableCount();
+		mirror = new byte[cells];
+		for(int i = 0; i < cells; i++)
+			mirror[i] = (byte)PatternDatabase.mirror(i, n);
+
+		/* Every table serves its own pattern. A mirrored table also serves
+		 * the mirrored pattern when that is a different pattern. */
+		int lookups[][] = new int[2*tables][];
+		int count = 0;
+		for(int t = 0; t < tables; t++)
+		{
+			lookups[count++] = new int[]{t, 0};
+			byte tiles[] = pdb.getTiles(t);
+			if(pdb.isMirrored() && !PatternDatabase.sameTiles(tiles, PatternDatabase.mirror(tiles, n)))
+				lookups[count++] = new int[]{t, 1};
+		}
+
+		perSide = count;
+		table = new int[sides*count];
+		flip = new boolean[sides*count];
+		pos = new byte[sides*count][];
+		values = new int[sides*count];
+		lookupOf = new int[sides][cells];
+		index = new byte[sides][cells];
+		sums = new int[sides];
+		for(int side = 0; side < sides; side++)
+		{
+			Arrays.fill(lookupOf[side], -1);
+			for(int i = 0; i < count; i++)
+			{
+				int l = side*count + i;
+				byte tiles[] = pdb.getTiles(lookups[i][0]);
+				table[l] = lookups[i][0];
+
+				/* A pattern mirrored from the table reads its tiles and positions
+				 * mirrored. Looking up the mirrored board mirrors both again. */
+				flip[l] = (lookups[i][1] == 1) != (side == MIRROR);
+				pos[l] = new byte[tiles.length];
+
+				for(int j = 0; j < tiles.length; j++)
+				{
+					int tile = flip[l] ? PatternDatabase.mirror(tiles[j], n) : tiles[j];
+					lookupOf[side][tile] = l;
+					index[side][tile] = (byte)j;
+				}
+			}
+		}
+	}
+
+	@Override
+	public int reset(byte board[])
+	{
+		for(int i = 0; i < board.length; i++)
+		{
+			int tile = board[i];
+			for(int side = 0; side < sides && tile >= 0; side++)
+			{
+				int l = lookupOf[side][tile];
+				if(l >= 0)
+					pos[l][index[side][tile]] = flip[l] ? mirror[i] : (byte)i;
+			}
+		}
+
+		for(int side = 0; side < sides; side++)
+			sums[side] = 0;
+		for(int l = 0; l < values.length; l++)
+		{
+			values[l] = pdb.lookup(table[l], pos[l]);
+			sums[l/perSide] += values[l];
+		}
+		return value();
+	}
+
+	@Override
+	public int move(int tile, int from, int to)
+	{
+		for(int side = 0; side < sides; side++)
+		{
+			int l = lookupOf[side][tile];
+			if(l < 0)
+				continue;
+
+			pos[l][index[side][tile]] = flip[l] ? mirror[to] : (byte)to;
+			int value = pdb.lookup(table[l], pos[l]);
+			sums[side] += value - values[l];
+			values[l] = value;
+		}
+		return value();
+	}
+
+	@Override
+	public Heuristic copy()
+	{
+		return new PatternHeuristic(pdb);
+	}
+
+	/**
+	 * Returns the larger of the sums.
+	 *
+	 * @return h - the current value.
+	 */
+	private int value()
+	{
+		return (sides == 2) ? Math.max(sums[NORMAL], sums[MIRROR]) : sums[NORMAL];
+	}
+}
\ No newline at end of file
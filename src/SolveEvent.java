@@ -0,0 +1,42 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event of a whole solve (see Solver.solve()).
+ *
+ * @author joshua
+ *
+ */
+@Name("puzzle.Solve")
+@Label("Solve")
+@Category("Sliding Puzzle")
+@Description("A board solved by Solver")
+@StackTrace(false)
+public class SolveEvent extends Event
+{
+	@Label("Board Size")
+	@Description("Rows and columns of the board")
+	int boardSize;
+
+	@Label("Goal Empty")
+	@Description("Goal position of the empty square")
+	int goalEmpty;
+
+	@Label("Moves")
+	@Description("Length of the solution or -1 if there is none")
+	int moves;
+
+	@Label("Nodes Expanded")
+	long expanded;
+
+	@Label("Nodes Generated")
+	long generated;
+
+	@Label("Iterations")
+	@Description("IDA* and Fringe iterations over every search")
+	int iterations;
+}
\ No newline at end of file
@@ -0,0 +1,274 @@
+import java.util.ArrayList;
+
+/**
+ * Counts of the work done by one solve. Every search adds its counts when
+ * it ends and IDA* adds the threshold of every iteration, so nothing is
+ * shared between threads while searching. Solver times each subgoal of the
+ * decomposition as a phase. Collected unless the SolverOptions turn it off.
+ *
+ * @author joshua
+ *
+ */
+public class SolveStatistics
+{
+	private long generated; // Children generated.
+	private long expanded; // Nodes expanded.
+	private long duplicates; // Children pruned as reached before or by an equivalent sequence of moves.
+	private int searches; // Searches run.
+	private ArrayList<Integer> thresholds; // Threshold of every IDA* or Fringe iteration in order.
+	private long peakOpen; // Largest open list or fringe of any search.
+	private long peakClosed; // Most nodes any search kept after expanding them.
+	private ArrayList<Phase> phases;
+	private long nanos; // Time of the whole solve.
+
+	private Phase phase; // Phase running or null.
+	private long phaseStart;
+	private long phaseExpanded; // Nodes expanded when the phase began.
+
+	/**
+	 * A subgoal of the solve.
+	 */
+	public static class Phase
+	{
+		private String name;
+		private int tile;
+		private long nanos;
+		private long expanded;
+
+		/**
+		 * Returns the name of the phase.
+		 *
+		 * @return String name such as "row" or "column".
+		 */
+		public String getName()
+		{
+			return name;
+		}
+
+		/**
+		 * Returns the tile the phase places.
+		 *
+		 * @return int tile or -1 if the phase places more than one tile.
+		 */
+		public int getTile()
+		{
+			return tile;
+		}
+
+		/**
+		 * Returns the time the phase took.
+		 *
+		 * @return long nanoseconds
+		 */
+		public long getNanos()
+		{
+			return nanos;
+		}
+
+		/**
+		 * Returns the nodes the searches of the phase expanded.
+		 *
+		 * @return long nodes
+		 */
+		public long getExpanded()
+		{
+			return expanded;
+		}
+
+		@Override
+		public String toString()
+		{
+			return name + ((tile >= 0) ? " " + tile : "") + ": " + nanos/1000000 + " ms, " + expanded + " expanded";
+		}
+	}
+
+	/**
+	 * Constructs empty statistics.
+	 */
+	public SolveStatistics()
+	{
+		thresholds = new ArrayList<Integer>();
+		phases = new ArrayList<Phase>();
+	}
+
+	/**
+	 * Adds the counts of a search that ended.
+	 *
+	 * @param generated - children generated.
+	 * @param expanded - nodes expanded.
+	 * @param duplicates - children pruned.
+	 * @param peakOpen - largest open list, 0 if the search has none.
+	 * @param peakClosed - most nodes kept after expanding them, 0 if the search keeps none.
+	 */
+	public void addSearch(long generated, long expanded, long duplicates, long peakOpen, long peakClosed)
+	{
+		this.generated += generated;
+		this.expanded += expanded;
+		this.duplicates += duplicates;
+		searches++;
+		this.peakOpen = Math.max(this.peakOpen, peakOpen);
+		this.peakClosed = Math.max(this.peakClosed, peakClosed);
+	}
+
+	/**
+	 * Records that an iteration started with thresh.
+	 *
+	 * @param thresh - the f cut off of the iteration.
+	 */
+	public void addIteration(int thresh)
+	{
+		thresholds.add(thresh);
+	}
+
+	/**
+	 * Starts timing a phase. Ends the phase running.
+	 *
+	 * @param name - such as "row" or "column".
+	 * @param tile - the tile placed or -1.
+	 */
+	public void beginPhase(String name, int tile)
+	{
+		endPhase();
+		phase = new Phase();
+		phase.name = name;
+		phase.tile = tile;
+		phaseStart = System.nanoTime();
+		phaseExpanded = expanded;
+	}
+
+	/**
+	 * Ends the phase running if there is one.
+	 */
+	public void endPhase()
+	{
+		if(phase == null)
+			return;
+
+		phase.nanos = System.nanoTime() - phaseStart;
+		phase.expanded = expanded - phaseExpanded;
+		phases.add(phase);
+		phase = null;
+	}
+
+	/**
+	 * Sets the time of the whole solve.
+	 *
+	 * @param nanos
+	 */
+	void setNanos(long nanos)
+	{
+		this.nanos = nanos;
+	}
+
+	/**
+	 * Returns the children generated.
+	 *
+	 * @return long children
+	 */
+	public long getGenerated()
+	{
+		return generated;
+	}
+
+	/**
+	 * Returns the nodes expanded.
+	 *
+	 * @return long nodes
+	 */
+	public long getExpanded()
+	{
+		return expanded;
+	}
+
+	/**
+	 * Returns the children pruned as duplicates.
+	 *
+	 * @return long children
+	 */
+	public long getDuplicates()
+	{
+		return duplicates;
+	}
+
+	/**
+	 * Returns the number of searches run.
+	 *
+	 * @return int searches
+	 */
+	public int getSearches()
+	{
+		return searches;
+	}
+
+	/**
+	 * Returns the number of IDA* or Fringe iterations over every search.
+	 *
+	 * @return int iterations
+	 */
+	public int getIterations()
+	{
+		return thresholds.size();
+	}
+
+	/**
+	 * Returns the threshold of every iteration in order.
+	 *
+	 * @return ArrayList<Integer> thresholds. Must not be changed.
+	 */
+	public ArrayList<Integer> getThresholds()
+	{
+		return thresholds;
+	}
+
+	/**
+	 * Returns the largest open list or fringe of any search.
+	 *
+	 * @return long entries
+	 */
+	public long getPeakOpen()
+	{
+		return peakOpen;
+	}
+
+	/**
+	 * Returns the most nodes any search kept after expanding them.
+	 *
+	 * @return long nodes
+	 */
+	public long getPeakClosed()
+	{
+		return peakClosed;
+	}
+
+	/**
+	 * Returns the phases in the order they ran.
+	 *
+	 * @return ArrayList<Phase> phases. Must not be changed.
+	 */
+	public ArrayList<Phase> getPhases()
+	{
+		return phases;
+	}
+
+	/**
+	 * Returns the time of the whole solve.
+	 *
+	 * @return long nanoseconds
+	 */
+	public long getNanos()
+	{
+		return nanos;
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder s = new StringBuilder();
+		s.append(nanos/1000000 + " ms, " + searches + " searches, " + generated + " generated, " + expanded + " expanded, "
+				+ duplicates + " duplicates, " + thresholds.size() + " iterations, peak open " + peakOpen
+				+ ", peak closed " + peakClosed);
+		for(Phase p: phases)
+			s.append("\n  " + p);
+		return s.toString();
+	}
+}
\ No newline at end of file
@@ -1,19 +1,18 @@
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.PriorityQueue;
+import jdk.jfr.FlightRecorder;
 
 /**
  * Solves the n-puzzle using A* search for the 8-puzzle and
  * a combination of IDA* and multiple goal states for n > 8.
  * 
+ * Every Solver has its own settings (see SolverOptions) and its own
+ * transposition table, so solvers can run at the same time on different
+ * threads. A single Solver solves one board at a time.
+ * 
  * @author joshua
  *
  */
 public class Solver {
 
-	private static final int FOUND = -1;
 	// Gives greater weight to Heuristic slightly speeding up search.
 	private static final int HIGH_H= 2; 
 
@@ -25,11 +24,35 @@ public class Solver {
 
 	private boolean multi;
 
+	private int gridRoot; // Number of rows and columns of the board being solved.
+
+	private SolverOptions options; // Settings of this solver.
+	private TranspositionTable table; // Table of the IDA* searches or null. Kept for later solves.
+
+	private SolveStatistics statistics; // Counts of the last solve or null if statistics are off.
+
+	private boolean recordSubgoals; // True if the phases are recorded as SubgoalEvents. Decided when the solve begins.
+	private SubgoalEvent subgoal; // Flight recorder event of the phase running or null.
+	private long subgoalExpanded; // Nodes expanded when the phase began.
+
 	/**
-	 * Constructs the solver with root and goal set to null.
+	 * Constructs the solver with the settings currently in Options.
 	 */
 	public Solver()
 	{
+		this(new SolverOptions());
+	}
+
+	/**
+	 * Constructs the solver with root and goal set to null. Keeps a copy of
+	 * options, so changing them later does not change this solver.
+	 *
+	 * @param options - the settings of the solver.
+	 */
+	public Solver(SolverOptions options)
+	{
+		this.options = new SolverOptions(options);
+		table = null;
 		root = null;
 		goal = null;
 		optimal = true;
@@ -39,6 +62,9 @@ public class Solver {
 
 	/**
 	 * Solves n-puzzle starting at root. Assumes goal is reachable from root.
+	 * The size of the board is taken from root, so solvers for different
+	 * boards can run at the same time. The solve, its phases and the IDA*
+	 * iterations are recorded as events if Java Flight Recorder runs.
 	 * 
 	 * @param root The starting state of the n-puzzle.
 	 * @param goalEmpty The position of the empty tile in goal state.
@@ -50,11 +76,117 @@ public class Solver {
 			return null;
 
 		this.root = root;
-		return solve(Options.GRID_ROOT, goalEmpty);
+		gridRoot = root.getGeometry().getN();
+
+		/* The event classes are only loaded if the recorder runs. The events carry
+		 * the node counts, so they are collected if the events are recorded when the
+		 * solve begins. Events enabled later in the solve go without counts. */
+		SolveEvent event = null;
+		boolean recording = false;
+		recordSubgoals = false;
+		if(FlightRecorder.isInitialized())
+		{
+			event = new SolveEvent();
+			event.begin();
+			recordSubgoals = new SubgoalEvent().isEnabled();
+			recording = event.isEnabled() || recordSubgoals;
+		}
+		statistics = (options.isStatistics() || recording) ? new SolveStatistics() : null;
+		if(table == null && options.getTranspositionMB() > 0)
+			table = new TranspositionTable(options.getTranspositionMB());
+
+		long start = System.nanoTime();
+		PState solution = solve(gridRoot, goalEmpty);
+		endPhase();
+		if(statistics != null)
+			statistics.setNanos(System.nanoTime() - start);
+
+		if(event != null)
+		{
+			event.end();
+			if(event.shouldCommit())
+			{
+				event.boardSize = gridRoot;
+				event.goalEmpty = goalEmpty;
+				event.moves = (solution == null) ? -1 : solution.getG();
+				if(statistics != null)
+				{
+					event.expanded = statistics.getExpanded();
+					event.generated = statistics.getGenerated();
+					event.iterations = statistics.getIterations();
+				}
+				event.commit();
+			}
+		}
+		if(!options.isStatistics())
+			statistics = null;
+		return solution;
+	}
+
+	/**
+	 * Returns the statistics of the last solve. Boards looked up in
+	 * EightPuzzleTable add no nodes.
+	 *
+	 * @return SolveStatistics statistics or null if the options turn statistics off.
+	 */
+	public SolveStatistics getStatistics()
+	{
+		return statistics;
 	}
 
 	/**
-	 * Solves 8-puzzle with A* and final goal. Solves greater n-puzzles
+	 * Starts timing a phase of the solve if statistics are collected and
+	 * begins its SubgoalEvent if flight recorder records it. Ends the phase
+	 * running.
+	 *
+	 * @param name - such as "row" or "column".
+	 * @param tile - the tile the phase places or -1.
+	 * @param n - the rows and columns of the subgrid left.
+	 */
+	private void beginPhase(String name, int tile, int n)
+	{
+		endPhase();
+		if(statistics != null)
+			statistics.beginPhase(name, tile);
+
+		if(!recordSubgoals)
+			return;
+		SubgoalEvent event = new SubgoalEvent();
+		if(!event.isEnabled())
+			return;
+		event.boardSize = gridRoot;
+		event.subgrid = n;
+		event.phase = name;
+		event.tile = tile;
+		subgoalExpanded = (statistics != null) ? statistics.getExpanded() : 0;
+		subgoal = event;
+		event.begin();
+	}
+
+	/**
+	 * Ends the phase running and commits its SubgoalEvent.
+	 */
+	private void endPhase()
+	{
+		if(statistics != null)
+			statistics.endPhase();
+		if(subgoal == null)
+			return;
+
+		subgoal.end();
+		if(subgoal.shouldCommit())
+		{
+			if(statistics != null)
+				subgoal.expanded = statistics.getExpanded() - subgoalExpanded;
+			subgoal.commit();
+		}
+		subgoal = null;
+	}
+
+	/**
+	 * Solves 8-puzzle with a table of every state, or A* and final goal. Solves the 15-puzzle optimally
+	 * with IDA* and a pattern database, and the 24-puzzle with weighted IDA*
+	 * if its pattern database has been built. Otherwise solves greater n-puzzles
 	 * with IDA* to find top left row and column then recursively solves an
 	 * (n-1)-puzzle.
 	 * 
@@ -64,6 +196,24 @@ public class Solver {
 	 */
 	private PState solve(int n, int goalEmpty)
 	{
+		if(n == gridRoot && n >= 4)
+		{
+			/* Solve the whole board at once if there is a pattern database for it.
+			 * The 15-puzzle is solved optimally, larger boards with weighted IDA*. */
+			PatternDatabase pdb = PatternDatabase.get(options.getPdbDir(), n, goalEmpty);
+			if(pdb != null)
+			{
+				goal = new PState(goalGrid(goalEmpty), (byte)goalEmpty);
+				multi = false;
+				optimal = (n == 4);
+
+				beginPhase("board", -1, n);
+				IDAStarSearch search = new IDAStarSearch(root, goal, multi, optimal ? 1 : HIGH_H, new PatternHeuristic(pdb), options);
+				search.setTranspositionTable(table);
+				search.setStatistics(statistics);
+				return search.search();
+			}
+		}
 		if(n > 4)
 		{
 			root = bigPuzzleSolve(n,goalEmpty);
@@ -74,9 +224,9 @@ public class Solver {
 			multi = true;
 
 			// Make the goal only consider the 1st column and row of 4x4 grid/subgrid.
-			byte[]goalGrid = new byte[Options.GRID_ROOT*Options.GRID_ROOT];
-			int goalDepth = Options.GRID_ROOT - n;
-			for(int i = 0, j = 0, depth = 0; depth < Options.GRID_ROOT;)
+			byte[]goalGrid = new byte[gridRoot*gridRoot];
+			int goalDepth = gridRoot - n;
+			for(int i = 0, j = 0, depth = 0; depth < gridRoot;)
 			{
 				if(depth <= goalDepth)
 				{
@@ -90,11 +240,11 @@ public class Solver {
 				}
 
 				i++; 
-				j += Options.GRID_ROOT;
-				if(i >= depth*Options.GRID_ROOT + Options.GRID_ROOT)
+				j += gridRoot;
+				if(i >= depth*gridRoot + gridRoot)
 				{
 					depth++;
-					i = depth*Options.GRID_ROOT + depth;
+					i = depth*gridRoot + depth;
 					j = i;
 				}
 			}
@@ -106,6 +256,7 @@ public class Solver {
 			PState solution;
 			optimal = false;
 			weight = HIGH_H;
+			beginPhase("edge", -1, n);
 			solution = idastarSearch();
 			root = solution;
 			return solve(n-1, goalEmpty);
@@ -113,23 +264,79 @@ public class Solver {
 		else
 		{
 			// Set up the goal state.
-			byte[] goalGrid = new byte[Options.GRID_ROOT*Options.GRID_ROOT];
-			for(byte i = 0; i < goalGrid.length; i++)
-			{
-				goalGrid[i] = i;
-			}
-
-			goalGrid[goalEmpty] = PState.EMPTY;
-			goal = new PState(goalGrid, (byte)(goalEmpty));
+			goal = new PState(goalGrid(goalEmpty), (byte)(goalEmpty));
 
 			optimal = true;
 			multi = false;
 
-			PState solution = astarSearch();
+			// Look the solution up in the 8-puzzle table if the last 3x3 subgrid is all that is left.
+			beginPhase("last", -1, n);
+			PState solution = tableSolve(goalEmpty);
+			if(solution == null)
+				solution = astarSearch();
 			return solution;
 		}
 	}
 
+	/**
+	 * Builds the grid of the final goal with every tile in its true location.
+	 * 
+	 * @param goalEmpty Position of the empty tile in goal.
+	 * @return byte[] the goal grid.
+	 */
+	private byte[] goalGrid(int goalEmpty)
+	{
+		byte[] goalGrid = new byte[gridRoot*gridRoot];
+		for(byte i = 0; i < goalGrid.length; i++)
+		{
+			goalGrid[i] = i;
+		}
+
+		goalGrid[goalEmpty] = PState.EMPTY;
+		return goalGrid;
+	}
+
+	/**
+	 * Solves the bottom right 3x3 subgrid with EightPuzzleTable. Only works
+	 * if every tile outside the subgrid is already in its true location.
+	 * 
+	 * @param goalEmpty Position of the empty tile in goal.
+	 * @return PState the goal state with path from root inside it or null if the table can not be used.
+	 */
+	private PState tableSolve(int goalEmpty)
+	{
+		int n = gridRoot;
+		int off = n - 3;
+		if(goalEmpty/n < off || goalEmpty%n < off)
+			return null;
+
+		// Map cells and tiles of the subgrid to 0 to 8.
+		byte[] sub = new byte[9];
+		for(int i = 0; i < n*n; i++)
+		{
+			int row = i/n, col = i%n;
+			byte tile = root.tileAt(i);
+			if(row < off || col < off)
+			{
+				if(tile != i)
+					return null;
+				continue;
+			}
+
+			sub[(row - off)*3 + col - off] = (tile == PState.EMPTY) ? PState.EMPTY : (byte)((tile/n - off)*3 + tile%n - off);
+		}
+
+		int subGoalEmpty = (goalEmpty/n - off)*3 + goalEmpty%n - off;
+		byte[] moves = EightPuzzleTable.solve(sub, subGoalEmpty);
+		if(moves == null)
+			return null;
+
+		PState state = root;
+		for(byte move: moves)
+			state = state.slide(move);
+		return state;
+	}
+
 	/**
 	 * Solves puzzle one tile at a time. Starts with upper left tile
 	 * then moves right until all tiles are in positon then moves down from upper left
@@ -159,26 +366,26 @@ public class Solver {
 			 * Modifier is the value to move to the next row in round 1 and column in round 2.*/
 			if(round == 1)
 			{
-				goalDepth = Options.GRID_ROOT - n;
-				goalPos = goalDepth*Options.GRID_ROOT + goalDepth;
-				bounds = goalDepth*Options.GRID_ROOT + Options.GRID_ROOT;
+				goalDepth = gridRoot - n;
+				goalPos = goalDepth*gridRoot + goalDepth;
+				bounds = goalDepth*gridRoot + gridRoot;
 				modifier = 1;
 			}
 			else
 			{
-				goalDepth = Options.GRID_ROOT - n;
-				goalPos = goalDepth*Options.GRID_ROOT + goalDepth + Options.GRID_ROOT;
-				bounds = Options.GRID_ROOT*(Options.GRID_ROOT - 1) + goalDepth + 1;
-				modifier = Options.GRID_ROOT;
+				goalDepth = gridRoot - n;
+				goalPos = goalDepth*gridRoot + goalDepth + gridRoot;
+				bounds = gridRoot*(gridRoot - 1) + goalDepth + 1;
+				modifier = gridRoot;
 			}
 
 			for(;goalPos < bounds; goalPos += modifier)
 			{
 
 				/* Construct the goal grid and solve one at a time until the row and column is solved. */
-				byte[]goalGrid = new byte[Options.GRID_ROOT*Options.GRID_ROOT];
+				byte[]goalGrid = new byte[gridRoot*gridRoot];
 
-				for(int i = 0, j = 0, depth = 0; depth < Options.GRID_ROOT;)
+				for(int i = 0, j = 0, depth = 0; depth < gridRoot;)
 				{
 					if(depth < goalDepth)
 					{
@@ -221,11 +428,11 @@ public class Solver {
 					}
 
 					i++; 
-					j += Options.GRID_ROOT;
-					if(i >= depth*Options.GRID_ROOT + Options.GRID_ROOT)
+					j += gridRoot;
+					if(i >= depth*gridRoot + gridRoot)
 					{
 						depth++;
-						i = depth*Options.GRID_ROOT + depth;
+						i = depth*gridRoot + depth;
 						j = i;
 					}
 				}
@@ -234,6 +441,7 @@ public class Solver {
 
 				goal = new PState(goalGrid, (byte)goalEmpty);
 
+				beginPhase((round == 1) ? "row" : "column", goalPos, n);
 				root = idastarSearch();
 			}
 		}
@@ -244,121 +452,48 @@ public class Solver {
 	/**
 	 * Implements A* search on the n-puzzle. Works best with 8-puzzle. If 
 	 * optimal is set it will find the shortest path from root to goal.
+	 * Uses hash distributed A* if there is more than one thread.
+	 * The nodes are kept in primitive arrays instead of PStates (see AStarSearch).
 	 * 
 	 * @return PState The PState with solution path from root to goal.
 	 */
 	private PState astarSearch()
 	{
-		// Priority queue of possible solutions.
-		PriorityQueue<PState> open; 
-
-		// Perform A* search
-		if(optimal)
-		{
-			open = new PriorityQueue<PState>(10, new Comparator<PState>()
-			{
-				// Computes f(n) = g(n) + h(n). Actual cost from root to curr + estimated cost to goal.
-				@Override
-				public int compare(PState s1, PState s2)
-				{
-					int f1 = s1.getG() + s1.getH();
-					int f2 = s2.getG() + s2.getH();
-					return f1 - f2;
-				}
-			});
-		}
-		else // Perform A* search with out an admissible heuristic. Improves speed of the search without optimality.
+		// Spread the search over every thread (see HDAStarSearch).
+		if(options.getThreads() > 1)
 		{
-			open = new PriorityQueue<PState>(10, new Comparator<PState>()
-			{
-				// Computes f(n) = h(n). Estimated cost to goal.
-				@Override
-				public int compare(PState s1, PState s2)
-				{
-					int f1 = s1.getG() + weight*s1.getH();
-					int f2 = s2.getG() + weight*s2.getH();
-					return f1 - f2;
-				}
-			});
+			HDAStarSearch search = new HDAStarSearch(root, goal, multi, optimal ? 1 : weight, options.getThreads());
+			search.setStatistics(statistics);
+			return search.search();
 		}
 
-
-		// List of states already checked.
-		HashSet<PState> closed = new HashSet<PState>();
-
-		PState currState = root;
-		while(currState != null && !currState.isGoal(goal, multi))
-		{
-			ArrayList<PState> successors = currState.genSuccessors();
-			for(PState state: successors)
-			{
-				if(!closed.contains(state))
-				{
-					open.add(state);
-				}
-			}
-
-			closed.add(currState);
-			currState = open.poll();
-		}
-
-		return currState;
+		/* Nodes are ordered by f(n) = g(n) + h(n). Without optimal h(n) is
+		 * weighted which improves speed of the search without optimality. */
+		AStarSearch search = new AStarSearch(root, goal, multi, optimal ? 1 : weight);
+		search.setStatistics(statistics);
+		return search.search();
 	}
 
 	/**
-	 * Implements an iterative version of IDA* search. If optimal is
-	 * set it will find the shortest path from root to goal. Uses less memory than A*.
-	 * Good for n-puzzle with n > 8.
+	 * Implements IDA* search. If optimal is set it will find the shortest
+	 * path from root to goal. Uses less memory than A*. Good for n-puzzle with n > 8.
+	 * The search runs on a single board without allocating per node (see IDAStarSearch).
+	 * Uses Fringe search instead if the options ask for it (see FringeSearch).
 	 * 
 	 * @return PState The PState with solution path from root to goal.
 	 */
 	private PState idastarSearch()
 	{
-		PState state = null;
-
-		// Threshold that will cut off the depth first search.
-		int thresh = root.getH();
-		while(thresh != FOUND && thresh < Integer.MAX_VALUE)
+		if(options.isFringeSearch())
 		{
-			int min = Integer.MAX_VALUE;
-
-			// Uses a stack to track next state in DFS.
-			LinkedList<PState> stack = new LinkedList<PState>();
-			stack.push(root);
-			while(!stack.isEmpty())
-			{
-				state = stack.pop();
-				if(!state.inPath(state))
-				{
-					int f;
-					if(optimal)
-						f = state.getG() + state.getH();
-					else
-						f = state.getG() + weight*state.getH();
-
-					// Cut off at f > thresh and use minimum f for new thresh.
-					if(f > thresh)
-					{
-						if(f < min)
-							min = f;
-					}
-					else
-					{
-						if(state.isGoal(goal, multi))
-						{
-							thresh = FOUND;
-							break;
-						}
-
-						stack.addAll(0, state.genSuccessors());
-					}
-				}
-			}
-
-			if(thresh != FOUND)
-				thresh = min;
+			FringeSearch search = new FringeSearch(root, goal, multi, optimal ? 1 : weight, options);
+			search.setStatistics(statistics);
+			return search.search();
 		}
 
-		return state;
+		IDAStarSearch search = new IDAStarSearch(root, goal, multi, optimal ? 1 : weight, options);
+		search.setTranspositionTable(table);
+		search.setStatistics(statistics);
+		return search.search();
 	}
 }
\ No newline at end of file
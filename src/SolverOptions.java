@@ -0,0 +1,214 @@
+/**
+ * Settings of one Solver. A new SolverOptions starts from the values in
+ * Options and each Solver keeps its own copy, so changing Options or these
+ * settings afterwards does not affect a Solver already made. Solvers with
+ * different settings can run at the same time.
+ *
+ * @author joshua
+ *
+ */
+public class SolverOptions
+{
+	private int threads; // Threads of each IDA* iteration. Above 1 the A* searches run as HDA*.
+	private int heuristic; // Heuristic used by IDA* without a pattern database.
+	private boolean countFreeTiles; // Count tiles a subgoal leaves FREE in the heuristic of weighted IDA*.
+	private int transpositionMB; // Memory of the table IDA* cuts off repeated boards with. 0 turns it off.
+	private boolean controlledReexpansion; // Pick the thresholds of weighted IDA* to double the work per iteration.
+	private boolean fringeSearch; // Search the subgoals with Fringe search instead of IDA*.
+	private boolean statistics; // Collect the counts of every solve.
+	private String pdbDir; // Directory holding pattern database files.
+
+	/**
+	 * Constructs the settings from the current values in Options.
+	 */
+	public SolverOptions()
+	{
+		threads = Options.THREADS;
+		heuristic = Options.HEURISTIC;
+		countFreeTiles = Options.COUNT_FREE_TILES;
+		transpositionMB = Options.TRANSPOSITION_MB;
+		controlledReexpansion = Options.CONTROLLED_REEXPANSION;
+		fringeSearch = Options.FRINGE_SEARCH;
+		statistics = Options.STATISTICS;
+		pdbDir = Options.PDB_DIR;
+	}
+
+	/**
+	 * Constructs a copy of options.
+	 *
+	 * @param options - the settings to copy.
+	 */
+	public SolverOptions(SolverOptions options)
+	{
+		threads = options.threads;
+		heuristic = options.heuristic;
+		countFreeTiles = options.countFreeTiles;
+		transpositionMB = options.transpositionMB;
+		controlledReexpansion = options.controlledReexpansion;
+		fringeSearch = options.fringeSearch;
+		statistics = options.statistics;
+		pdbDir = options.pdbDir;
+	}
+
+	/**
+	 * Returns the threads searching the subtrees of each IDA* iteration.
+	 * Above 1 the A* searches run as hash distributed A* on as many threads.
+	 *
+	 * @return int threads
+	 */
+	public int getThreads()
+	{
+		return threads;
+	}
+
+	/**
+	 * Sets the threads of each search. See getThreads().
+	 *
+	 * @param threads
+	 */
+	public void setThreads(int threads)
+	{
+		this.threads = threads;
+	}
+
+	/**
+	 * Returns the heuristic IDA* uses without a pattern database.
+	 *
+	 * @return int one of the heuristics in Heuristic.
+	 */
+	public int getHeuristic()
+	{
+		return heuristic;
+	}
+
+	/**
+	 * Sets the heuristic IDA* uses without a pattern database.
+	 *
+	 * @param heuristic - one of the heuristics in Heuristic.
+	 */
+	public void setHeuristic(int heuristic)
+	{
+		this.heuristic = heuristic;
+	}
+
+	/**
+	 * Returns true if the heuristic of a subgoal counts the tiles it leaves FREE.
+	 *
+	 * @return boolean countFreeTiles
+	 */
+	public boolean isCountFreeTiles()
+	{
+		return countFreeTiles;
+	}
+
+	/**
+	 * Sets whether the heuristic of a subgoal counts the tiles it leaves FREE.
+	 *
+	 * @param countFreeTiles
+	 */
+	public void setCountFreeTiles(boolean countFreeTiles)
+	{
+		this.countFreeTiles = countFreeTiles;
+	}
+
+	/**
+	 * Returns the memory of the transposition table IDA* cuts off repeated boards with.
+	 *
+	 * @return int megabytes or 0 if there is no table.
+	 */
+	public int getTranspositionMB()
+	{
+		return transpositionMB;
+	}
+
+	/**
+	 * Sets the memory of the transposition table. 0 turns it off.
+	 *
+	 * @param transpositionMB
+	 */
+	public void setTranspositionMB(int transpositionMB)
+	{
+		this.transpositionMB = transpositionMB;
+	}
+
+	/**
+	 * Returns true if weighted IDA* controls how much work is repeated (IDA*_CR).
+	 *
+	 * @return boolean controlledReexpansion
+	 */
+	public boolean isControlledReexpansion()
+	{
+		return controlledReexpansion;
+	}
+
+	/**
+	 * Sets whether weighted IDA* controls how much work is repeated.
+	 *
+	 * @param controlledReexpansion
+	 */
+	public void setControlledReexpansion(boolean controlledReexpansion)
+	{
+		this.controlledReexpansion = controlledReexpansion;
+	}
+
+	/**
+	 * Returns true if the subgoals of boards over 3x3 are searched with
+	 * Fringe search instead of IDA*.
+	 *
+	 * @return boolean fringeSearch
+	 */
+	public boolean isFringeSearch()
+	{
+		return fringeSearch;
+	}
+
+	/**
+	 * Sets whether the subgoals are searched with Fringe search.
+	 *
+	 * @param fringeSearch
+	 */
+	public void setFringeSearch(boolean fringeSearch)
+	{
+		this.fringeSearch = fringeSearch;
+	}
+
+	/**
+	 * Returns true if the counts of every solve are collected (see SolveStatistics).
+	 *
+	 * @return boolean statistics
+	 */
+	public boolean isStatistics()
+	{
+		return statistics;
+	}
+
+	/**
+	 * Sets whether the counts of every solve are collected.
+	 *
+	 * @param statistics
+	 */
+	public void setStatistics(boolean statistics)
+	{
+		this.statistics = statistics;
+	}
+
+	/**
+	 * Returns the directory holding pattern database files.
+	 *
+	 * @return String directory
+	 */
+	public String getPdbDir()
+	{
+		return pdbDir;
+	}
+
+	/**
+	 * Sets the directory holding pattern database files.
+	 *
+	 * @param pdbDir
+	 */
+	public void setPdbDir(String pdbDir)
+	{
+		this.pdbDir = pdbDir;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,41 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event of a phase of a solve: a row or column tile of
+ * Solver.bigPuzzleSolve(), the first row and column of the last 4x4, the
+ * last 3x3 or the whole board.
+ *
+ * @author joshua
+ *
+ */
+@Name("puzzle.Subgoal")
+@Label("Subgoal")
+@Category("Sliding Puzzle")
+@Description("A phase of a solve")
+@StackTrace(false)
+public class SubgoalEvent extends Event
+{
+	@Label("Board Size")
+	@Description("Rows and columns of the board")
+	int boardSize;
+
+	@Label("Subgrid Size")
+	@Description("Rows and columns of the subgrid left when the phase began")
+	int subgrid;
+
+	@Label("Phase")
+	@Description("row, column, edge, last or board")
+	String phase;
+
+	@Label("Tile")
+	@Description("The tile placed or -1 if the phase places more than one")
+	int tile;
+
+	@Label("Nodes Expanded")
+	long expanded;
+}
\ No newline at end of file
@@ -0,0 +1,98 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed size table of the lowest g IDA* has reached every board with, keyed
+ * by the Zobrist key of the board (see BoardGeometry.zobrist()). A board
+ * reached again with a higher g can be cut off since the cheaper path
+ * searches everything below it with more to spare. A board reached again
+ * with the same g in the same iteration has already been searched.
+ *
+ * Every bucket holds two entries. The first keeps the entry with the lowest
+ * g, which cuts off the largest subtree, and the second takes whatever the
+ * first does not keep. Entries are written without locks, so the key is
+ * stored xored with the data and a torn entry reads as a different key.
+ *
+ * Each Solver keeps its own table and its searches use it in turn, so
+ * solvers running at the same time never evict each other's entries. Each
+ * search has its own id stored in the entries, so entries of other searches
+ * read as empty and the table is never cleared.
+ *
+ * @author joshua
+ *
+ */
+public class TranspositionTable
+{
+	private static final int ENTRY_BYTES = 16;
+	private static final int WAYS = 2; // Entries per bucket.
+	private static final long G_MASK = 0xFFFFL;
+	private static final long ITERATION_MASK = 0xFFFFL;
+
+	private final long checks[]; // checks[i] is the key of entry i xored with data[i].
+	private final long data[]; // data[i] is the search id, iteration and g of entry i.
+	private final int mask; // Number of buckets - 1.
+	private final AtomicInteger searches; // Last id given to a search.
+
+	/**
+	 * Constructs a table using about megabytes of memory.
+	 *
+	 * @param megabytes - the memory budget.
+	 */
+	public TranspositionTable(int megabytes)
+	{
+		long entries = ((long)megabytes << 20)/ENTRY_BYTES;
+		int buckets = Integer.highestOneBit((int)Math.min(entries/WAYS, 1 << 28));
+		checks = new long[buckets*WAYS];
+		data = new long[buckets*WAYS];
+		mask = buckets - 1;
+		searches = new AtomicInteger(0);
+	}
+
+	/**
+	 * Returns a new search id. Entries written under other ids are ignored.
+	 *
+	 * @return int id
+	 */
+	public int newSearch()
+	{
+		return searches.incrementAndGet();
+	}
+
+	/**
+	 * Records that the board with key was reached with cost g and checks
+	 * whether it can be cut off.
+	 *
+	 * @param key - the Zobrist key of the board.
+	 * @param g - cost from the root of the search.
+	 * @param search - id of the search from newSearch().
+	 * @param iteration - tells the IDA* iterations apart, such as the threshold.
+	 * @return true if the board was reached before with a lower g, or with the same g in this iteration.
+	 */
+	public boolean visit(long key, int g, int search, int iteration)
+	{
+		long stamp = ((long)search << 32) | ((iteration & ITERATION_MASK) << 16);
+		long entry = stamp | g;
+		int first = (int)((key >>> 32) & mask)*WAYS;
+
+		for(int i = first; i < first + WAYS; i++)
+		{
+			long d = data[i];
+			if((checks[i] ^ d) != key || (d >>> 32) != search)
+				continue;
+
+			int old = (int)(d & G_MASK);
+			if(old < g || (old == g && (d & ~G_MASK) == stamp))
+				return true;
+
+			data[i] = entry;
+			checks[i] = key ^ entry;
+			return false;
+		}
+
+		// Keep the lowest g in the first entry, anything else goes to the second.
+		long d = data[first];
+		int slot = ((d >>> 32) != search || g <= (int)(d & G_MASK)) ? first : first + 1;
+		data[slot] = entry;
+		checks[slot] = key ^ entry;
+		return false;
+	}
+}
\ No newline at end of file
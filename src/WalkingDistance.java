@@ -0,0 +1,215 @@
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Takahashi's walking distance. Only counts how many tiles of each goal row
+ * are in each row and lets the empty square swap with any tile of a
+ * neighbouring row. The fewest moves to sort the rows this way plus the
+ * fewest moves to sort the columns is admissible and stronger than
+ * Manhattan distance because tiles in the same row block each other.
+ *
+ * The distances of every arrangement of counts are found with a breadth
+ * first search from the goal. Rows and columns use the same kind of table
+ * and a move changes only one of them by following a precomputed transition.
+ *
+ * @author joshua
+ *
+ */
+public class WalkingDistance extends Heuristic
+{
+	public static final int MAX_N = 4; // Largest board the tables are built for.
+
+	private static final int BITS = 3; // Bits for each count in a key.
+	private static final int UP = 0, DOWN = 1; // Directions of the empty square between lines.
+
+	// Tables for each n and goal line of the empty square. Built when first used.
+	private static final Table tables[][] = new Table[MAX_N + 1][MAX_N];
+
+	private int n;
+	private int goalEmpty;
+	private Table rows, cols;
+	private int rowId, colId; // Current arrangement of the rows and of the columns.
+
+	/**
+	 * Distances of every arrangement of counts for one goal line of the
+	 * empty square. Arrangements are numbered in the order they are found.
+	 */
+	private static class Table
+	{
+		private HashMap<Long, Integer> ids; // Number of each key.
+		private byte dist[]; // dist[id] is the number of moves to the goal.
+		private int next[]; // next[id*2n + direction*n + line] is the arrangement after a move.
+	}
+
+	/**
+	 * Constructs walking distance for an n by n board.
+	 *
+	 * @param n - the number of rows and columns. At most MAX_N.
+	 * @param goalEmpty - position of the empty square in the goal.
+	 */
+	public WalkingDistance(int n, int goalEmpty)
+	{
+		this.n = n;
+		this.goalEmpty = goalEmpty;
+		rows = table(n, goalEmpty/n);
+		cols = table(n, goalEmpty%n);
+	}
+
+	@Override
+	public int reset(byte board[])
+	{
+		int rowCounts[][] = new int[n][n];
+		int colCounts[][] = new int[n][n];
+		int emptyRow = 0, emptyCol = 0;
+		for(int pos = 0; pos < board.length; pos++)
+		{
+			int tile = board[pos];
+			if(tile < 0)
+			{
+				emptyRow = pos/n;
+				emptyCol = pos%n;
+				continue;
+			}
+			rowCounts[pos/n][tile/n]++;
+			colCounts[pos%n][tile%n]++;
+		}
+
+		rowId = rows.ids.get(key(rowCounts, emptyRow, n));
+		colId = cols.ids.get(key(colCounts, emptyCol, n));
+		return rows.dist[rowId] + cols.dist[colId];
+	}
+
+	@Override
+	public int move(int tile, int from, int to)
+	{
+		// The empty square moves from to into from.
+		int direction = (from < to) ? UP : DOWN;
+		if(from%n == to%n)
+			rowId = rows.next[rowId*2*n + direction*n + tile/n];
+		else
+			colId = cols.next[colId*2*n + direction*n + tile%n];
+		return rows.dist[rowId] + cols.dist[colId];
+	}
+
+	@Override
+	public Heuristic copy()
+	{
+		return new WalkingDistance(n, goalEmpty);
+	}
+
+	/**
+	 * Encodes counts and the line of the empty square in a long.
+	 *
+	 * @param counts - counts[line][goal] is the number of tiles in line whose goal is in line goal.
+	 * @param empty - the line of the empty square.
+	 * @param n - the number of rows and columns.
+	 * @return long key
+	 */
+	private static long key(int counts[][], int empty, int n)
+	{
+		long key = empty;
+		for(int line = 0; line < n; line++)
+		{
+			for(int goal = 0; goal < n; goal++)
+				key = (key << BITS) | counts[line][goal];
+		}
+		return key;
+	}
+
+	/**
+	 * Decodes a key into counts.
+	 *
+	 * @param key
+	 * @param counts - filled with the counts of key.
+	 * @param n - the number of rows and columns.
+	 * @return int the line of the empty square.
+	 */
+	private static int decode(long key, int counts[][], int n)
+	{
+		for(int line = n - 1; line >= 0; line--)
+		{
+			for(int goal = n - 1; goal >= 0; goal--)
+			{
+				counts[line][goal] = (int)(key & ((1 << BITS) - 1));
+				key >>>= BITS;
+			}
+		}
+		return (int)key;
+	}
+
+	/**
+	 * Returns the table for an n by n board with the empty square in line
+	 * goalLine of the goal. The table is built with a breadth first search
+	 * from the goal the first time it is needed.
+	 *
+	 * @param n - the number of rows and columns.
+	 * @param goalLine - line of the empty square in the goal.
+	 * @return Table the table.
+	 */
+	private static synchronized Table table(int n, int goalLine)
+	{
+		if(tables[n][goalLine] != null)
+			return tables[n][goalLine];
+
+		int counts[][] = new int[n][n];
+		for(int line = 0; line < n; line++)
+			counts[line][line] = (line == goalLine) ? n - 1 : n;
+
+		HashMap<Long, Integer> ids = new HashMap<Long, Integer>();
+		long queue[] = new long[1024];
+		byte dist[] = new byte[1024];
+		int next[] = new int[1024*2*n];
+		int head = 0, tail = 0;
+
+		queue[tail] = key(counts, goalLine, n);
+		ids.put(queue[tail++], 0);
+		while(head < tail)
+		{
+			int id = head;
+			int empty = decode(queue[head++], counts, n);
+			for(int direction = UP; direction <= DOWN; direction++)
+			{
+				int line = (direction == UP) ? empty - 1 : empty + 1;
+				for(int goal = 0; goal < n; goal++)
+				{
+					int slot = id*2*n + direction*n + goal;
+					if(line < 0 || line >= n || counts[line][goal] == 0)
+					{
+						next[slot] = -1;
+						continue;
+					}
+
+					// A tile whose goal is in line goal moves into the line of the empty square.
+					counts[line][goal]--;
+					counts[empty][goal]++;
+					long key = key(counts, line, n);
+					counts[line][goal]++;
+					counts[empty][goal]--;
+
+					Integer child = ids.get(key);
+					if(child == null)
+					{
+						if(tail == queue.length)
+						{
+							queue = Arrays.copyOf(queue, tail << 1);
+							dist = Arrays.copyOf(dist, tail << 1);
+							next = Arrays.copyOf(next, (tail << 1)*2*n);
+						}
+						child = tail;
+						ids.put(key, child);
+						dist[tail] = (byte)(dist[id] + 1);
+						queue[tail++] = key;
+					}
+					next[slot] = child;
+				}
+			}
+		}
+
+		Table table = new Table();
+		table.ids = ids;
+		table.dist = dist;
+		table.next = next;
+		tables[n][goalLine] = table;
+		return table;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,173 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests MoveSequence against plain arrays of moves. The lengths cross the
+ * 32 moves held by each long.
+ *
+ * @author joshua
+ *
+ */
+public class MoveSequenceTest
+{
+	private static final int LENGTHS[] = {0, 1, 31, 32, 33, 63, 64, 65, 100};
+
+	@Test
+	public void appendsAcrossWords()
+	{
+		for(int length : LENGTHS)
+		{
+			byte moves[] = moves(length, new Random(length));
+			MoveSequence sequence = new MoveSequence();
+			for(byte move : moves)
+				sequence.append(move);
+
+			assertEquals(length, sequence.size());
+			assertArrayEquals(moves, sequence.toArray());
+			assertEquals(sequence, new MoveSequence(moves));
+		}
+	}
+
+	@Test
+	public void reverses()
+	{
+		for(int length : LENGTHS)
+		{
+			byte moves[] = moves(length, new Random(length));
+			MoveSequence sequence = new MoveSequence(moves);
+			sequence.reverse();
+
+			byte reversed[] = new byte[length];
+			for(int i = 0; i < length; i++)
+				reversed[i] = moves[length - 1 - i];
+			assertArrayEquals(reversed, sequence.toArray());
+		}
+	}
+
+	/**
+	 * The inverse holds the moves in reverse order, each turned around.
+	 */
+	@Test
+	public void invertsMoves()
+	{
+		for(int length : LENGTHS)
+		{
+			byte moves[] = moves(length, new Random(length));
+			MoveSequence inverse = new MoveSequence(moves).inverse();
+
+			assertEquals(length, inverse.size());
+			for(int i = 0; i < length; i++)
+				assertEquals(moves[length - 1 - i] ^ 1, inverse.get(i));
+			assertEquals(new MoveSequence(moves), inverse.inverse());
+		}
+	}
+
+	@Test
+	public void roundTripsThroughSerialization() throws IOException, ClassNotFoundException
+	{
+		for(int length : LENGTHS)
+		{
+			byte moves[] = moves(length, new Random(length));
+			MoveSequence sequence = new MoveSequence(moves);
+			MoveSequence copy = roundTrip(sequence);
+
+			assertArrayEquals(moves, copy.toArray());
+			assertEquals(sequence, copy);
+			assertEquals(copy, sequence);
+			assertEquals(sequence.hashCode(), copy.hashCode());
+		}
+	}
+
+	/**
+	 * A sequence read back holds only the longs in use, so appending to it
+	 * has to grow it.
+	 */
+	@Test
+	public void appendsAfterSerialization() throws IOException, ClassNotFoundException
+	{
+		byte moves[] = moves(40, new Random(40));
+		MoveSequence sequence = new MoveSequence();
+		for(int i = 0; i < 32; i++)
+			sequence.append(moves[i]);
+
+		MoveSequence copy = roundTrip(sequence);
+		for(int i = 32; i < moves.length; i++)
+		{
+			sequence.append(moves[i]);
+			copy.append(moves[i]);
+		}
+
+		assertArrayEquals(moves, copy.toArray());
+		assertEquals(sequence, copy);
+		assertEquals(sequence.hashCode(), copy.hashCode());
+	}
+
+	@Test
+	public void differsByOneMove()
+	{
+		byte moves[] = moves(65, new Random(65));
+		MoveSequence sequence = new MoveSequence(moves);
+		moves[64] ^= 1;
+		assertNotEquals(sequence, new MoveSequence(moves));
+
+		MoveSequence longer = new MoveSequence(sequence.toArray());
+		longer.append(Constants.LEFT);
+		assertNotEquals(sequence, longer);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsNone()
+	{
+		new MoveSequence().append(Constants.NONE);
+	}
+
+	/**
+	 * Returns length random directions.
+	 *
+	 * @param length
+	 * @param random
+	 * @return byte[] moves
+	 */
+	private static byte[] moves(int length, Random random)
+	{
+		byte moves[] = new byte[length];
+		for(int i = 0; i < length; i++)
+			moves[i] = (byte)random.nextInt(4);
+		return moves;
+	}
+
+	/**
+	 * Serializes sequence and reads it back.
+	 *
+	 * @param sequence
+	 * @return MoveSequence the copy read back.
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	private static MoveSequence roundTrip(MoveSequence sequence) throws IOException, ClassNotFoundException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(sequence);
+		out.close();
+
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		try
+		{
+			return (MoveSequence)in.readObject();
+		} finally
+		{
+			in.close();
+		}
+	}
+}
\ No newline at end of file
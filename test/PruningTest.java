@@ -0,0 +1,120 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests that the MoveAutomaton and the transposition table only prune
+ * duplicates. IDA* has to find solutions of the same length as plain IDA*,
+ * which only skips the move undoing the previous one, on one thread and
+ * on several.
+ *
+ * @author joshua
+ *
+ */
+public class PruningTest
+{
+	private static final int BOARDS = 8;
+	private static final int THREADS[] = {1, 4}; // Threads of each iteration.
+	private static final int TABLE_MB = 4;
+
+	@Test
+	public void eightPuzzle()
+	{
+		checkBoards(3, 200);
+	}
+
+	@Test
+	public void fifteenPuzzle()
+	{
+		checkBoards(4, 60);
+	}
+
+	/**
+	 * Solves seeded n by n boards with every kind of pruning and compares
+	 * the lengths with plain IDA*.
+	 *
+	 * @param n - the number of rows and columns.
+	 * @param moves - random moves shuffling each board.
+	 */
+	private static void checkBoards(int n, int moves)
+	{
+		Random random = new Random(n);
+		PState goal = goal(n);
+		for(int i = 0; i < BOARDS; i++)
+		{
+			PState root = shuffled(goal, moves, random);
+			int plain = solve(root, goal, 1, false, false);
+			for(int threads : THREADS)
+			{
+				assertEquals("automaton on " + threads, plain, solve(root, goal, threads, true, false));
+				assertEquals("automaton and table on " + threads, plain, solve(root, goal, threads, true, true));
+			}
+		}
+	}
+
+	/**
+	 * Solves root optimally with IDA*.
+	 *
+	 * @param root
+	 * @param goal
+	 * @param threads - threads of each iteration.
+	 * @param automaton - prune with MoveAutomaton.get() instead of MoveAutomaton.inverses().
+	 * @param table - cut off repeated boards with a transposition table.
+	 * @return int the length of the solution.
+	 */
+	private static int solve(PState root, PState goal, int threads, boolean automaton, boolean table)
+	{
+		SolverOptions options = new SolverOptions();
+		options.setThreads(threads);
+		IDAStarSearch search = new IDAStarSearch(root, goal, false, 1, options);
+		if(!automaton)
+			search.setMoveAutomaton(MoveAutomaton.inverses());
+		if(table)
+			search.setTranspositionTable(new TranspositionTable(TABLE_MB));
+
+		PState solution = search.search();
+		assertNotNull(solution);
+		assertTrue(solution.isGoal(goal, false));
+		return solution.getG();
+	}
+
+	/**
+	 * Returns the goal of an n by n board with the empty square in the
+	 * bottom right corner.
+	 *
+	 * @param n - the number of rows and columns.
+	 * @return PState goal
+	 */
+	private static PState goal(int n)
+	{
+		byte grid[] = new byte[n*n];
+		for(int i = 0; i < grid.length; i++)
+			grid[i] = (byte)i;
+		grid[n*n - 1] = PState.EMPTY;
+		return new PState(grid, (byte)(n*n - 1));
+	}
+
+	/**
+	 * Returns a board shuffled from goal by random moves.
+	 *
+	 * @param goal
+	 * @param moves - the number of moves tried.
+	 * @param random
+	 * @return PState board without a path.
+	 */
+	private static PState shuffled(PState goal, int moves, Random random)
+	{
+		PState state = goal;
+		for(int i = 0; i < moves; i++)
+		{
+			byte direction = (byte)random.nextInt(4);
+			if(state.getGeometry().moveTo(state.getEmpty(), direction) >= 0)
+				state = state.slide(direction);
+		}
+		return new PState(state.toGrid(), (byte)state.getEmpty());
+	}
+}
\ No newline at end of file
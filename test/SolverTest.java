@@ -0,0 +1,142 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests which way Solver takes through a 5x5 board. The pattern database
+ * written here splits the tiles into pairs and holds no distance above
+ * Manhattan distance, so it is quick to write and still admissible.
+ *
+ * @author joshua
+ *
+ */
+public class SolverTest
+{
+	private static final int N = 5;
+	private static final int GOAL_EMPTY = N*N - 1;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private SolverOptions options;
+
+	@Before
+	public void setUp()
+	{
+		options = new SolverOptions();
+		options.setPdbDir(folder.getRoot().getPath());
+		options.setStatistics(true);
+	}
+
+	/**
+	 * A 5x5 board is solved whole with weighted IDA* when its pattern
+	 * database is mapped.
+	 */
+	@Test
+	public void solvesWithPatternDatabase() throws IOException
+	{
+		writeDatabase(new File(folder.getRoot(), "pdb" + N + "-" + GOAL_EMPTY + ".bin"));
+
+		Solver solver = new Solver(options);
+		PState solution = solver.solve(shuffled(), GOAL_EMPTY);
+		assertNotNull(solution);
+		assertTrue(solution.isGoal(goal(), false));
+
+		ArrayList<SolveStatistics.Phase> phases = solver.getStatistics().getPhases();
+		assertEquals(1, phases.size());
+		assertEquals("board", phases.get(0).getName());
+	}
+
+	/**
+	 * Without a pattern database a 5x5 board is solved one row and column at a time.
+	 */
+	@Test
+	public void decomposesWithoutPatternDatabase()
+	{
+		Solver solver = new Solver(options);
+		PState solution = solver.solve(shuffled(), GOAL_EMPTY);
+		assertNotNull(solution);
+		assertTrue(solution.isGoal(goal(), false));
+
+		ArrayList<SolveStatistics.Phase> phases = solver.getStatistics().getPhases();
+		assertEquals("row", phases.get(0).getName());
+		assertEquals("last", phases.get(phases.size() - 1).getName());
+	}
+
+	/**
+	 * Returns the goal with the empty square in the bottom right corner.
+	 *
+	 * @return PState goal
+	 */
+	private static PState goal()
+	{
+		byte grid[] = new byte[N*N];
+		for(int i = 0; i < grid.length; i++)
+			grid[i] = (byte)i;
+		grid[GOAL_EMPTY] = PState.EMPTY;
+		return new PState(grid, (byte)GOAL_EMPTY);
+	}
+
+	/**
+	 * Returns a board shuffled from the goal by random moves from a fixed seed.
+	 *
+	 * @return PState board without a path.
+	 */
+	private static PState shuffled()
+	{
+		Random random = new Random(N);
+		PState state = goal();
+		for(int i = 0; i < 60; i++)
+		{
+			byte direction = (byte)random.nextInt(4);
+			if(state.getGeometry().moveTo(state.getEmpty(), direction) >= 0)
+				state = state.slide(direction);
+		}
+		return new PState(state.toGrid(), (byte)state.getEmpty());
+	}
+
+	/**
+	 * Writes a pattern database in the format PatternDatabase maps, with
+	 * every tile paired with the next and every value 0.
+	 *
+	 * @param file
+	 * @throws IOException
+	 */
+	private static void writeDatabase(File file) throws IOException
+	{
+		int tables = (N*N - 1)/2;
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		try
+		{
+			out.writeInt(PatternDatabase.MAGIC);
+			out.writeInt(N);
+			out.writeInt(GOAL_EMPTY);
+			out.writeBoolean(false);
+			out.writeInt(tables);
+			for(int t = 0; t < tables; t++)
+			{
+				out.writeInt(2);
+				out.write(new byte[]{(byte)(2*t), (byte)(2*t + 1)});
+				out.writeByte(PatternDatabase.NIBBLE);
+			}
+			for(int t = 0; t < tables; t++)
+				out.write(new byte[PatternDatabase.bytes(2, N*N, PatternDatabase.NIBBLE)]);
+		} finally
+		{
+			out.close();
+		}
+	}
+}
\ No newline at end of file